@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Heap in use and process RSS at idle and right after a burst of reads.
+#
+# Usage: scripts/measure-footprint.sh <java arguments...>
+#   scripts/measure-footprint.sh -Dspring.profiles.active=prod -jar target/blogapp-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+
+port=${PORT:-18080}
+management_port=${MANAGEMENT_PORT:-18081}
+workers=${WORKERS:-8}
+requests=${REQUESTS:-500}
+base="http://localhost:$port"
+
+java -Dserver.port="$port" -Dmanagement.server.port="$management_port" -Dblogapp.rate-limit.enabled=false "$@" > /dev/null 2>&1 &
+pid=$!
+trap 'kill "$pid" 2> /dev/null || true' EXIT
+until curl -sf -o /dev/null "$base/api/posts"; do
+    kill -0 "$pid" 2> /dev/null || { echo "application exited before answering" >&2; exit 1; }
+    sleep 0.1
+done
+
+report() {
+    local heap
+    heap=$(curl -s "http://127.0.0.1:$management_port/actuator/metrics/jvm.memory.used?tag=area:heap" | grep -o '"value":[0-9.E]*' | head -1 | cut -d: -f2)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    awk -v label="$1" -v heap="$heap" -v rss="$rss" \
+        'BEGIN { printf "%-6s heap used %6.1f MB, RSS %6.1f MB\n", label, heap / 1048576, rss / 1024 }'
+}
+
+sleep 10
+jcmd "$pid" GC.run > /dev/null
+report idle
+
+user_id=$(curl -s -H 'Content-Type: application/json' \
+    -d '{"username":"footprint","fullName":"Footprint","password":"password123"}' "$base/api/users" \
+    | grep -o '"id":[0-9]*' | head -1 | cut -d: -f2)
+post_id=$(curl -s -H 'Content-Type: application/json' \
+    -d "{\"title\":\"Footprint\",\"content\":\"Measuring\",\"userId\":$user_id}" "$base/api/posts" \
+    | grep -o '"id":[0-9]*' | head -1 | cut -d: -f2)
+
+urls=()
+for ((i = 0; i < requests; i++)); do
+    urls+=("$base/api/posts/$post_id" "$base/api/users/$user_id" "$base/api/posts")
+done
+load=()
+for ((w = 0; w < workers; w++)); do
+    curl -s "${urls[@]}" > /dev/null &
+    load+=($!)
+done
+wait "${load[@]}"
+report load
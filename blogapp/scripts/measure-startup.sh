@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Milliseconds from process launch until GET /api/posts first answers 200, averaged over runs.
+#
+# Usage: scripts/measure-startup.sh <runs> <java arguments...>
+#   scripts/measure-startup.sh 5 -jar target/blogapp-0.0.1-SNAPSHOT.jar
+#   scripts/measure-startup.sh 5 -XX:SharedArchiveFile=target/app/application.jsa \
+#       -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar target/app/blogapp-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+
+runs=$1
+shift
+port=${PORT:-18080}
+total=0
+
+for ((i = 1; i <= runs; i++)); do
+    start=$(date +%s%N)
+    java -Dserver.port="$port" "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$port/api/posts"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "application exited before answering" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "run $i: ${elapsed} ms"
+    total=$((total + elapsed))
+done
+
+echo "average: $((total / runs)) ms"
@@ -0,0 +1,158 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.config.NegativeLookupCacheProperties;
+import com.example.blogapp.datasource.ReadYourWritesTracker;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.event.UserCreatedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Remembers ids that were just looked up and not found, so crawlers and stale clients
+ * re-requesting them get their 404 without a query.
+ *
+ * Deleted ids never come back, but an id past the current maximum can still be created, so
+ * creates forget their id once committed. A lookup that raced such a create is not recorded,
+ * and the TTL bounds how long a create on another instance can go unnoticed here.
+ *
+ * With read replicas, only misses read from the primary are recorded: a replica that has not yet
+ * replayed a create would otherwise turn that id into a 404 for the whole TTL.
+ */
+@Component
+@EnableConfigurationProperties(NegativeLookupCacheProperties.class)
+public class NegativeLookupCache {
+
+    public static final String POST = "Post";
+    public static final String USER = "User";
+    public static final String COMMENT = "Comment";
+
+    private final ObjectProvider<ReadYourWritesTracker> trackerProvider;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<String, MissingIds> resources;
+
+    @Autowired
+    public NegativeLookupCache(NegativeLookupCacheProperties properties, MeterRegistry meterRegistry,
+                               ObjectProvider<ReadYourWritesTracker> trackerProvider) {
+        this(properties, meterRegistry, trackerProvider, Clock.systemUTC());
+    }
+
+    NegativeLookupCache(NegativeLookupCacheProperties properties, MeterRegistry meterRegistry,
+                        ObjectProvider<ReadYourWritesTracker> trackerProvider, Clock clock) {
+        this.trackerProvider = trackerProvider;
+        this.clock = clock;
+        this.ttlMillis = properties.getTtl().toMillis();
+        this.resources = Map.of(
+                POST, new MissingIds(POST, properties.getMaxEntries(), meterRegistry),
+                USER, new MissingIds(USER, properties.getMaxEntries(), meterRegistry),
+                COMMENT, new MissingIds(COMMENT, properties.getMaxEntries(), meterRegistry));
+    }
+
+    // Runs the loader unless the id is known to be missing; a not-found from the loader is remembered
+    public <T> T lookup(String resource, Long id, Supplier<T> loader) {
+        MissingIds missingIds = resources.get(resource);
+        if (missingIds.contains(id, clock.millis())) {
+            missingIds.avoided.increment();
+            throw new ResourceNotFoundException(resource, "id", id);
+        }
+        long startGeneration = missingIds.generation.get();
+        try {
+            return loader.get();
+        } catch (ResourceNotFoundException e) {
+            if (resource.equals(e.getResourceName()) && id.equals(e.getFieldValue()) && readFromPrimary()) {
+                missingIds.record(id, clock.millis() + ttlMillis, startGeneration);
+            }
+            throw e;
+        }
+    }
+
+    public void forget(String resource, Long id) {
+        resources.get(resource).forget(id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        forget(POST, event.postId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        forget(USER, event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        forget(COMMENT, event.comment().getId());
+    }
+
+    // Without replica routing every read goes to the primary; with it, only pinned reads do
+    private boolean readFromPrimary() {
+        ReadYourWritesTracker tracker = trackerProvider.getIfAvailable();
+        return tracker == null || tracker.isPinnedToPrimary();
+    }
+
+    private static final class MissingIds {
+
+        private final Map<Long, Long> expiresAtMillis;
+        // Bumped on every forget; a miss observed across one is not recorded
+        private final AtomicLong generation = new AtomicLong();
+        private final Counter avoided;
+
+        private MissingIds(String resource, int maxEntries, MeterRegistry meterRegistry) {
+            this.expiresAtMillis = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+            this.avoided = Counter.builder("blogapp.negative.cache.avoided")
+                    .description("Lookups of a missing id answered without a query")
+                    .tag("resource", resource)
+                    .register(meterRegistry);
+            meterRegistry.gaugeMapSize("blogapp.negative.cache.size", Tags.of("resource", resource), expiresAtMillis);
+        }
+
+        private boolean contains(Long id, long nowMillis) {
+            Long expiresAt = expiresAtMillis.get(id);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt > nowMillis) {
+                return true;
+            }
+            expiresAtMillis.remove(id, expiresAt);
+            return false;
+        }
+
+        private void record(Long id, long expiresAt, long startGeneration) {
+            synchronized (expiresAtMillis) {
+                if (generation.get() == startGeneration) {
+                    expiresAtMillis.put(id, expiresAt);
+                }
+            }
+        }
+
+        private void forget(Long id) {
+            synchronized (expiresAtMillis) {
+                generation.incrementAndGet();
+                expiresAtMillis.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.config.PostPayloadCacheProperties;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.event.PostChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps recently read posts as ready-to-send JSON bytes (plus a gzipped copy for large ones),
+ * so repeat reads skip both the database and Jackson.
+ *
+ * Entries are dropped when their post changes and expire after a TTL, which bounds how long a
+ * render from a lagging replica can be served.
+ */
+@Component
+@EnableConfigurationProperties(PostPayloadCacheProperties.class)
+public class PostPayloadCache {
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int gzipMinSize;
+    private final long ttlMillis;
+    private final Map<Long, Payload> payloads;
+
+    // Bumped on eviction of any post in the stripe; a payload rendered across an eviction of its
+    // own stripe is not stored, while renders of unrelated posts are unaffected
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    public PostPayloadCache(ObjectMapper objectMapper, PostPayloadCacheProperties properties) {
+        this(objectMapper, properties, Clock.systemUTC());
+    }
+
+    PostPayloadCache(ObjectMapper objectMapper, PostPayloadCacheProperties properties, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.gzipMinSize = properties.getGzipMinSize();
+        this.ttlMillis = properties.getTtl().toMillis();
+        int maxEntries = properties.getMaxEntries();
+        this.payloads = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Payload> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public ResponseEntity<byte[]> getOrRender(Long postId, boolean acceptsGzip, Supplier<PostDto> loader) {
+        Payload payload = payloads.get(postId);
+        if (payload == null || payload.expiresAtMillis() <= clock.millis()) {
+            int stripe = stripe(postId);
+            long startGeneration = generations.get(stripe);
+            payload = render(loader.get());
+            if (generations.get(stripe) == startGeneration) {
+                payloads.put(postId, payload);
+            }
+        }
+        return payload.toResponse(acceptsGzip);
+    }
+
+    public void evict(Long postId) {
+        generations.incrementAndGet(stripe(postId));
+        payloads.remove(postId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        evict(event.postId());
+    }
+
+    private Payload render(PostDto postDto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(postDto);
+            return new Payload(json, json.length >= gzipMinSize ? gzip(json) : null, clock.millis() + ttlMillis);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int stripe(Long postId) {
+        return Long.hashCode(postId) & (GENERATION_STRIPES - 1);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Payload(byte[] json, byte[] gzipped, long expiresAtMillis) {
+
+        ResponseEntity<byte[]> toResponse(boolean acceptsGzip) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip && gzipped != null) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped);
+            }
+            return response.body(json);
+        }
+    }
+}
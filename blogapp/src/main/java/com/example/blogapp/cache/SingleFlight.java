@@ -0,0 +1,158 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.config.SingleFlightProperties;
+import com.example.blogapp.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader in a
+ * read-only transaction and everyone arriving while it is in flight waits for its result.
+ *
+ * Nothing is kept once the load finishes, so this is not a cache and never serves stale data;
+ * it only stops a burst of identical reads from becoming a burst of identical queries.
+ * Waiting callers hold no connection, which is why callers must not wrap it in a transaction.
+ * Each waiting caller gets its own copy of the result, as response DTOs are mutable.
+ */
+@Component
+@EnableConfigurationProperties(SingleFlightProperties.class)
+public class SingleFlight {
+
+    private final TransactionOperations readOnlyTransaction;
+    private final ObjectProvider<ReadYourWritesTracker> trackerProvider;
+    private final MeterRegistry meterRegistry;
+    private final Duration followerTimeout;
+
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, GroupMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SingleFlight(PlatformTransactionManager transactionManager,
+                        ObjectProvider<ReadYourWritesTracker> trackerProvider, MeterRegistry meterRegistry,
+                        SingleFlightProperties properties) {
+        this(readOnly(transactionManager), trackerProvider, meterRegistry, properties.getFollowerTimeout());
+    }
+
+    SingleFlight(TransactionOperations readOnlyTransaction,
+                 ObjectProvider<ReadYourWritesTracker> trackerProvider, MeterRegistry meterRegistry,
+                 Duration followerTimeout) {
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.trackerProvider = trackerProvider;
+        this.meterRegistry = meterRegistry;
+        this.followerTimeout = followerTimeout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String group, Object key, Supplier<T> loader, UnaryOperator<T> copy) {
+        // Inside a transaction the caller may need its own uncommitted writes, which another flight cannot see
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        GroupMeters groupMeters = meters.computeIfAbsent(group, this::register);
+        FlightKey flightKey = new FlightKey(group, key, isPinnedToPrimary());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            groupMeters.collapsed().increment();
+            return copy.apply((T) await(leader));
+        }
+
+        groupMeters.loads().increment();
+        try {
+            T value = readOnlyTransaction.execute(status -> loader.get());
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // Followers see the leader's own exception, so a missing row is still a ResourceNotFoundException
+    private Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.get(followerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for a concurrent load");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent load", e);
+        }
+    }
+
+    // A client pinned after its own write must not share a replica read started before it
+    private boolean isPinnedToPrimary() {
+        ReadYourWritesTracker tracker = trackerProvider.getIfAvailable();
+        return tracker != null && tracker.isPinnedToPrimary();
+    }
+
+    private GroupMeters register(String group) {
+        Counter loads = Counter.builder("blogapp.singleflight.calls")
+                .description("Coalesced reads by whether they queried or joined an in-flight load")
+                .tag("group", group)
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        Counter collapsed = Counter.builder("blogapp.singleflight.calls")
+                .description("Coalesced reads by whether they queried or joined an in-flight load")
+                .tag("group", group)
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+        GroupMeters groupMeters = new GroupMeters(loads, collapsed);
+        Gauge.builder("blogapp.singleflight.collapse.ratio", groupMeters, GroupMeters::collapseRatio)
+                .description("Share of reads since startup answered by another caller's query")
+                .tag("group", group)
+                .register(meterRegistry);
+        return groupMeters;
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private record FlightKey(String group, Object key, boolean primary) {
+    }
+
+    private record GroupMeters(Counter loads, Counter collapsed) {
+
+        double collapseRatio() {
+            double total = loads.count() + collapsed.count();
+            return total == 0 ? 0 : collapsed.count() / total;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.comments.stream")
+public class CommentStreamProperties {
+
+    // Open streams across all posts; further subscribers get 503
+    private int maxSubscribers = 20_000;
+
+    // Events queued per subscriber; a subscriber that falls this far behind is disconnected
+    private int bufferSize = 32;
+
+    // Streams are closed after this long; EventSource clients reconnect on their own
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // Sent as the stream's retry field: how long EventSource clients wait before reconnecting
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    // Threads writing events to subscribers; idle connections hold none
+    private int senderThreads = 4;
+}
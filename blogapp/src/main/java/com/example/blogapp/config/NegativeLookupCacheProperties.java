@@ -0,0 +1,19 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.negative-cache")
+public class NegativeLookupCacheProperties {
+
+    // Missing ids remembered per resource, oldest are dropped first
+    private int maxEntries = 10_000;
+
+    // Bounds how long another instance's create of a remembered id can go unnoticed
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,20 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.password")
+public class PasswordHashingProperties {
+
+    // BCrypt log2 rounds; raising it makes existing hashes get upgraded on next login
+    private int bcryptStrength = 10;
+
+    // Threads dedicated to hashing, independent of the web server's pool
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+
+    // Hash requests allowed to wait for a thread before new ones are rejected with 503
+    private int queueCapacity = 100;
+}
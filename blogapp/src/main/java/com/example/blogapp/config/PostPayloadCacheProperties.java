@@ -0,0 +1,22 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.post-cache")
+public class PostPayloadCacheProperties {
+
+    // Number of serialized posts kept, least recently read are dropped first
+    private int maxEntries = 1_000;
+
+    // Payloads smaller than this are not worth a precompressed copy
+    private int gzipMinSize = 2_048;
+
+    // Bounds how long a payload rendered from a lagging replica, or with an old view count, is served
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,25 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Sustained requests per second allowed for a single client
+    private double requestsPerSecond = 50;
+
+    // Requests a client may send at once before being throttled to the sustained rate
+    private int burst = 100;
+
+    // Upper bound on clients with a live bucket
+    private int maxTrackedClients = 100_000;
+
+    // Requests allowed inside the application at the same time, across all clients
+    private int maxConcurrentRequests = 150;
+}
@@ -0,0 +1,86 @@
+package com.example.blogapp.config;
+
+import com.example.blogapp.datasource.ReadYourWritesFilter;
+import com.example.blogapp.datasource.ReadYourWritesTracker;
+import com.example.blogapp.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary.
+ * The lazy proxy defers picking a physical connection until the transaction's read-only
+ * flag is known.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "blogapp.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.getStickiness(), replicaProperties.getMaxTrackedClients());
+    }
+
+    // Bound like the pool Spring Boot would create, so spring.datasource.hikari.* sizes the primary
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties dataSourceProperties,
+                                 ReadReplicaProperties replicaProperties,
+                                 JpaProperties jpaProperties,
+                                 ReadYourWritesTracker tracker) {
+        // Open-in-view keeps the connection of a request's first transaction for the whole request,
+        // so a write following a read-only transaction would be sent to the replica
+        if (!Boolean.FALSE.equals(jpaProperties.getOpenInView())) {
+            throw new IllegalStateException("Read replica routing requires spring.jpa.open-in-view=false");
+        }
+        List<DataSource> replicas = replicaProperties.getUrls().stream()
+                .map(url -> createReplica(url, dataSourceProperties, replicaProperties))
+                .toList();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicas, tracker));
+        return proxy;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+    }
+
+    private DataSource createReplica(String url, DataSourceProperties dataSourceProperties,
+                                     ReadReplicaProperties replicaProperties) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica-" + url);
+        replica.setJdbcUrl(url);
+        replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        replica.setUsername(replicaProperties.getUsername() != null
+                ? replicaProperties.getUsername() : dataSourceProperties.determineUsername());
+        replica.setPassword(replicaProperties.getPassword() != null
+                ? replicaProperties.getPassword() : dataSourceProperties.determinePassword());
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    // JDBC urls of the replicas, reads are spread round-robin across them
+    private List<String> urls = new ArrayList<>();
+
+    // Defaults to spring.datasource.username/password when not set
+    private String username;
+    private String password;
+
+    // How long a client's reads stay on the primary after it wrote something
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    // Upper bound on clients tracked for stickiness
+    private int maxTrackedClients = 100_000;
+}
@@ -0,0 +1,16 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.singleflight")
+public class SingleFlightProperties {
+
+    // How long a request waits for another request's query before it is answered with 503
+    private Duration followerTimeout = Duration.ofSeconds(5);
+}
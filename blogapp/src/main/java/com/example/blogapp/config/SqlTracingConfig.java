@@ -0,0 +1,61 @@
+package com.example.blogapp.config;
+
+import com.example.blogapp.sqltrace.SqlObservationListener;
+import com.example.blogapp.sqltrace.SqlOriginAspect;
+import com.example.blogapp.sqltrace.SqlQueriesEndpoint;
+import com.example.blogapp.sqltrace.SqlTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Times every statement the application runs and attributes it to the controller or service
+ * method it came from; see {@link SqlTracer}. Statements also become spans under the current trace.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlTracingProperties.class)
+@ConditionalOnProperty(prefix = "blogapp.sql-tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTracingConfig {
+
+    @Bean
+    public SqlTracer sqlTracer(SqlTracingProperties properties, MeterRegistry meterRegistry) {
+        return new SqlTracer(properties, meterRegistry);
+    }
+
+    // Wraps the data source the application uses; with read replicas that is the routing one, so each
+    // statement is seen once whichever pool runs it
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourceProxy(ObjectProvider<SqlTracer> sqlTracer,
+                                                              ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName)
+                            .listener(sqlTracer.getObject())
+                            .listener(new SqlObservationListener(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlOriginAspect sqlOriginAspect() {
+        return new SqlOriginAspect();
+    }
+
+    @Bean
+    public SqlQueriesEndpoint sqlQueriesEndpoint(SqlTracer sqlTracer) {
+        return new SqlQueriesEndpoint(sqlTracer);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.sql-tracing")
+public class SqlTracingProperties {
+
+    private boolean enabled = true;
+
+    // Statements running at least this long are logged with their origin and bind parameters (text values masked)
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    // Distinct statement shapes kept for the report; statements of further shapes are only counted
+    private int maxShapes = 500;
+}
@@ -0,0 +1,25 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.timeline")
+public class TimelineProperties {
+
+    // Most recent post ids kept per user
+    private int capacity = 500;
+
+    // Users with a materialized timeline; others are rebuilt from the database on their next read
+    private int maxUsers = 100_000;
+
+    // Authors with more followers than this are not fanned out, their posts are merged on read
+    private long celebrityThreshold = 10_000;
+
+    private int fanoutThreads = 2;
+
+    // Posts waiting for a fan-out thread; beyond this the committing request runs its own fan-out
+    private int fanoutQueueCapacity = 10_000;
+}
@@ -0,0 +1,82 @@
+package com.example.blogapp.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Spans for repository calls, between the {@code @Observed} service spans and the JDBC spans,
+ * and span export besides OTLP, which Spring Boot sets up once {@code management.otlp.tracing.endpoint} is given.
+ */
+@Configuration
+public class TracingConfig {
+
+    // Observations that exist only to become spans; their timing is covered by the service timers and SqlTracer
+    static final Set<String> SPAN_ONLY_OBSERVATIONS = Set.of("blogapp.repository", "blogapp.jdbc.query");
+
+    // Observations are otherwise created, timed and handed to every handler whether or not the trace is
+    // sampled; outside a sampled trace, the per-call and per-statement ones are skipped altogether
+    @Bean
+    public ObservationPredicate spanOnlyObservationsWhenSampled(ObjectProvider<Tracer> tracer) {
+        return sampledTracesOnly(SingletonSupplier.of(() -> tracer.getIfAvailable(() -> Tracer.NOOP)));
+    }
+
+    static ObservationPredicate sampledTracesOnly(Supplier<Tracer> tracer) {
+        return (name, context) -> {
+            if (!SPAN_ONLY_OBSERVATIONS.contains(name)) {
+                return true;
+            }
+            Span span = tracer.get().currentSpan();
+            return span != null && Boolean.TRUE.equals(span.context().sampled());
+        };
+    }
+
+    // Inherited methods such as findById are declared on Spring Data's interfaces, out of @Observed's
+    // reach, so every repository proxy gets the observation as advice when its factory builds it
+    @Bean
+    public static BeanPostProcessor repositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    observeCalls(repositoryInformation.getRepositoryInterface(), observationRegistry))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Writes each finished span to the log, for a look at traces without running a collector
+    @Bean
+    @ConditionalOnProperty(prefix = "blogapp.tracing", name = "log-spans", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    private static MethodInterceptor observeCalls(Class<?> repositoryInterface,
+                                                  ObjectProvider<ObservationRegistry> observationRegistry) {
+        String repository = repositoryInterface.getSimpleName();
+        return invocation -> Observation.createNotStarted("blogapp.repository", observationRegistry.getObject())
+                .contextualName(repository + "#" + invocation.getMethod().getName())
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                .observeChecked(invocation::proceed);
+    }
+}
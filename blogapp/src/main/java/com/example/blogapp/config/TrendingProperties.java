@@ -0,0 +1,24 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.trending")
+public class TrendingProperties {
+
+    // Activity loses half its weight after this long
+    private Duration halfLife = Duration.ofHours(6);
+
+    // Posts with no activity for this long leave the ranking
+    private Duration window = Duration.ofHours(48);
+
+    private int topK = 50;
+
+    private double postWeight = 1.0;
+    private double commentWeight = 3.0;
+}
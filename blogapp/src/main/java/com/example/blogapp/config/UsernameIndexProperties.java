@@ -0,0 +1,16 @@
+package com.example.blogapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "blogapp.username-index")
+public class UsernameIndexProperties {
+
+    // Sizing floor; the filter is built for at least twice the users present at startup
+    private long expectedUsers = 100_000;
+
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,79 @@
+package com.example.blogapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes list responses in the negotiated wire format, with the same mappers the message
+ * converters use, so a streamed CBOR or Smile list reads exactly like a converted one.
+ */
+@Component
+class ArrayResponses {
+
+    // Matches hibernate.default_batch_fetch_size, so each chunk of posts loads its tags and comments with one query each
+    static final int CHUNK_SIZE = 100;
+
+    private final Map<MediaType, ObjectMapper> mappers;
+
+    ArrayResponses(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                   MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper(),
+                WireFormats.SMILE, smileConverter.getObjectMapper());
+    }
+
+    void write(String accept, HttpServletResponse response, List<?> elements)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        JsonArrayWriter writer = open(accept, response);
+        elements.forEach(writer::write);
+        writer.finish();
+    }
+
+    // Reads keyset chunks in id order until a short one. Each chunk is read in its own read-only transaction
+    // and written after it ended; with open-in-view off that also returns the connection, so a slow client
+    // holds neither a transaction nor a connection
+    <T> void writeChunks(String accept, HttpServletResponse response, ChunkReader<T> reader, ToLongFunction<T> idOf)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        JsonArrayWriter writer = open(accept, response);
+        long afterId = 0;
+        List<T> chunk;
+        do {
+            chunk = reader.read(afterId, CHUNK_SIZE);
+            chunk.forEach(writer::write);
+            if (!chunk.isEmpty()) {
+                afterId = idOf.applyAsLong(chunk.get(chunk.size() - 1));
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        writer.finish();
+    }
+
+    CommentTreeWriter openTree(String accept, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        MediaType format = WireFormats.negotiate(accept);
+        return new CommentTreeWriter(JsonArrayWriter.generator(mappers.get(format), format, response));
+    }
+
+    private JsonArrayWriter open(String accept, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        MediaType format = WireFormats.negotiate(accept);
+        return JsonArrayWriter.open(mappers.get(format), format, response);
+    }
+
+    @FunctionalInterface
+    interface ChunkReader<T> {
+
+        // Up to limit elements with an id above afterId, lowest id first
+        List<T> read(long afterId, int limit);
+    }
+}
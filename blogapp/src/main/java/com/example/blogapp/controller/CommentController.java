@@ -1,14 +1,19 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.config.WireFormatConfig;
 import com.example.blogapp.dto.CommentDto;
 import com.example.blogapp.service.CommentService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -16,10 +21,13 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final ArrayResponses arrayResponses;
 
-    @GetMapping
-    public ResponseEntity<List<CommentDto>> getAllComments() {
-        return ResponseEntity.ok(commentService.getAllComments());
+    // Written chunk by chunk in any of the wire formats
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.SMILE_VALUE})
+    public void getAllComments(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                               HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        arrayResponses.writeChunks(accept, response, commentService::getCommentsAfter, CommentDto::getId);
     }
 
     @GetMapping("/{id}")
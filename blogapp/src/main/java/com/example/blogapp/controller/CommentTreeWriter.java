@@ -0,0 +1,50 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.dto.CommentNodeDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Turns depth-first comment rows into nested arrays as they are written.
+ *
+ * Each comment is written as an object whose "replies" array stays open until a row at the
+ * same or a shallower depth arrives, so only the current path is tracked, never the tree.
+ */
+final class CommentTreeWriter extends JsonArrayWriter {
+
+    private int openDepth = -1;
+
+    CommentTreeWriter(JsonGenerator generator) {
+        super(generator);
+    }
+
+    void writeNode(CommentNodeDto node) throws IOException {
+        start();
+        while (openDepth >= node.getDepth()) {
+            closeNode();
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("id", node.getId());
+        generator.writeObjectField("parentId", node.getParentId());
+        generator.writeNumberField("userId", node.getUserId());
+        generator.writeStringField("content", node.getContent());
+        generator.writeObjectField("createdAt", node.getCreatedAt());
+        generator.writeArrayFieldStart("replies");
+        openDepth = node.getDepth();
+    }
+
+    @Override
+    void finish() throws IOException {
+        while (openDepth >= 0) {
+            closeNode();
+        }
+        super.finish();
+    }
+
+    private void closeNode() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        openDepth--;
+    }
+}
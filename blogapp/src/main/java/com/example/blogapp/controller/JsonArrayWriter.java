@@ -0,0 +1,65 @@
+package com.example.blogapp.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a list response as an array one element at a time, as the caller hands them over, in
+ * whichever format the given mapper produces (JSON, CBOR or Smile).
+ *
+ * Only the generator's and the container's buffers are held, never the list; with no content
+ * length known up front, the body goes out with chunked transfer encoding as the buffers fill.
+ */
+class JsonArrayWriter {
+
+    protected final JsonGenerator generator;
+    private boolean started;
+
+    JsonArrayWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    static JsonArrayWriter open(ObjectMapper objectMapper, MediaType format, HttpServletResponse response)
+            throws IOException {
+        return new JsonArrayWriter(generator(objectMapper, format, response));
+    }
+
+    static JsonGenerator generator(ObjectMapper objectMapper, MediaType format, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(format.toString());
+        // The encoding only applies to JSON; the binary factories ignore it
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        // Closing only flushes: the container completes the response once the filters have run too
+        return generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Unchecked so it can be passed straight on as a sink
+    void write(Object element) {
+        try {
+            start();
+            generator.writeObject(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    // Deferred so a query that fails before the first row still gets a regular error response
+    protected void start() throws IOException {
+        if (!started) {
+            generator.writeStartArray();
+            started = true;
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.cache.PostPayloadCache;
+import com.example.blogapp.config.WireFormatConfig;
+import com.example.blogapp.dto.CommentNodeDto;
 import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.service.CommentService;
 import com.example.blogapp.service.PostService;
+import com.example.blogapp.stream.CommentStreamHub;
+import com.example.blogapp.viewcount.PostViewCounter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -16,15 +30,71 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final PostPayloadCache postPayloadCache;
+    private final PostViewCounter postViewCounter;
+    private final CommentService commentService;
+    private final ArrayResponses arrayResponses;
+    private final CommentStreamHub commentStreamHub;
 
-    @GetMapping
-    public ResponseEntity<List<PostDto>> getAllPosts() {
-        return ResponseEntity.ok(postService.getAllPosts());
+    // With tags, only the newest posts carrying every one of them. The full listing is written chunk by chunk
+    // in any of the wire formats
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.SMILE_VALUE})
+    public void getAllPosts(@RequestParam(required = false) Set<String> tags,
+                            @RequestParam(defaultValue = "20") int limit,
+                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        if (tags != null && !tags.isEmpty()) {
+            arrayResponses.write(accept, response, postService.getPostsByTags(tags, limit));
+            return;
+        }
+        arrayResponses.writeChunks(accept, response, postService::getPostsAfter, PostDto::getId);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<PostDto> getPostById(@PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPostById(id));
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostSummaryDto>> getTrendingPosts(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.getTrendingPosts(limit));
+    }
+
+    // JSON is served from pre-serialized bytes; binary formats are serialized from the DTO on each request
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.SMILE_VALUE})
+    public ResponseEntity<?> getPostById(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType format = WireFormats.negotiate(accept);
+        ResponseEntity<?> response;
+        if (MediaType.APPLICATION_JSON.equals(format)) {
+            response = postPayloadCache.getOrRender(id, WireFormats.acceptsGzip(acceptEncoding),
+                    () -> postService.getPostById(id));
+        } else {
+            response = ResponseEntity.ok().contentType(format).body(postService.getPostById(id));
+        }
+        postViewCounter.increment(id);
+        return response;
+    }
+
+    // A page of threads, nested while its depth-first rows are written after the read has ended;
+    // pass the last top-level id as after for the next page
+    @GetMapping(value = "/{id}/comments/tree", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.SMILE_VALUE})
+    public void getCommentTree(@PathVariable Long id,
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(defaultValue = "20") int threads,
+                               @RequestParam(defaultValue = "50") int replies,
+                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                               HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        List<CommentNodeDto> nodes = commentService.getCommentTree(id, after, threads, replies);
+        CommentTreeWriter writer = arrayResponses.openTree(accept, response);
+        for (CommentNodeDto node : nodes) {
+            writer.writeNode(node);
+        }
+        writer.finish();
+    }
+
+    // Pushes each new comment on the post as a "comment" event, so clients can stop polling the post
+    @GetMapping(value = "/{id}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComments(@PathVariable Long id) {
+        return commentStreamHub.subscribe(id);
     }
 
     @PostMapping
@@ -1,14 +1,27 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.config.WireFormatConfig;
+import com.example.blogapp.dto.CommentSummaryDto;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.LoginDto;
+import com.example.blogapp.dto.PostSummaryDto;
 import com.example.blogapp.dto.UserDto;
+import com.example.blogapp.service.CommentService;
+import com.example.blogapp.service.PostService;
+import com.example.blogapp.service.TimelineService;
 import com.example.blogapp.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,10 +29,16 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final TimelineService timelineService;
+    private final ArrayResponses arrayResponses;
 
-    @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    // Written chunk by chunk in any of the wire formats; the rows never include the password hash
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.SMILE_VALUE})
+    public void getAllUsers(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        arrayResponses.writeChunks(accept, response, userService::getUsersAfter, UserDto::getId);
     }
 
     @GetMapping("/{id}")
@@ -27,6 +46,49 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @GetMapping("/{id}/posts")
+    public ResponseEntity<CursorPage<PostSummaryDto>> getPostsByUser(@PathVariable Long id,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPostsByUser(id, cursor, size));
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<CursorPage<CommentSummaryDto>> getCommentsByUser(@PathVariable Long id,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getCommentsByUser(id, cursor, size));
+    }
+
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<CursorPage<PostSummaryDto>> getTimeline(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(timelineService.getTimeline(id, cursor, size));
+    }
+
+    @PutMapping("/{id}/following/{followeeId}")
+    public ResponseEntity<Void> follow(@PathVariable Long id, @PathVariable Long followeeId) {
+        timelineService.follow(id, followeeId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/following/{followeeId}")
+    public ResponseEntity<Void> unfollow(@PathVariable Long id, @PathVariable Long followeeId) {
+        timelineService.unfollow(id, followeeId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/by-username/{username}")
+    public ResponseEntity<UserDto> getUserByUsername(@PathVariable String username) {
+        return ResponseEntity.ok(userService.getUserByUsername(username));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> checkUsernameAvailability(@RequestParam String username) {
+        return ResponseEntity.ok(Map.of("username", username, "available", userService.isUsernameAvailable(username)));
+    }
+
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserDto userDto) {
         UserDto createdUser = userService.createUser(userDto);
@@ -44,4 +106,9 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/login")
+    public ResponseEntity<UserDto> login(@Valid @RequestBody LoginDto loginDto) {
+        return ResponseEntity.ok(userService.login(loginDto));
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.config.WireFormatConfig;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content negotiation for handlers that produce every wire format, or encoding, themselves.
+ *
+ * Such a handler declares all three types in {@code produces}, so Spring answers 406 to an Accept
+ * header that allows none of them; two handlers split by format would not do, as Spring's
+ * mapping breaks the tie for {@code *}{@code /*} alphabetically and would pick CBOR.
+ */
+final class WireFormats {
+
+    static final MediaType SMILE = MediaType.valueOf(WireFormatConfig.SMILE_VALUE);
+
+    // In order of preference when the client rates several equally
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private WireFormats() {
+    }
+
+    // The format the client rates highest, JSON when there is no Accept header
+    static MediaType negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted = accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL)
+                : MediaType.parseMediaTypes(accept);
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType candidate : PRODUCIBLE) {
+            double quality = quality(candidate, accepted);
+            if (quality > bestQuality) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        if (best == null) {
+            throw new HttpMediaTypeNotAcceptableException(PRODUCIBLE);
+        }
+        return best;
+    }
+
+    // The q-value of the most specific accepted range covering the type, so "application/json;q=0.1, */*" ranks JSON low
+    private static double quality(MediaType type, List<MediaType> accepted) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (range.includes(type) && (match == null || range.isMoreSpecific(match))) {
+                match = range;
+            }
+        }
+        return match == null ? 0 : match.getQualityValue();
+    }
+
+    // Whether Accept-Encoding allows gzip: listed with a non-zero q-value, or covered by "*" and not listed at all,
+    // so "gzip;q=0" and "identity, x-gzip" are refusals
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip")) {
+                gzip = codingQuality(parts);
+            } else if (coding.equals("*")) {
+                any = codingQuality(parts);
+            }
+        }
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0;
+    }
+
+    // A missing q-value means 1; one that does not parse refuses the coding rather than guess
+    private static double codingQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.blogapp.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Pins a client's reads to the primary for a short window after it issued a write.
+ *
+ * Clients are told apart by their authenticated principal, or else by a cookie handed out with
+ * their first write; the remote address would lump every client behind one proxy together.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_COOKIE = "BLOGAPP_CLIENT";
+
+    private final ReadYourWritesTracker tracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientKey = clientKey(request);
+        if (clientKey != null && tracker.wroteRecently(clientKey)) {
+            tracker.pinToPrimary();
+        }
+        boolean write = isWrite(request.getMethod());
+        if (write && clientKey == null) {
+            // Set before the chain runs, while the response headers can still be written
+            clientKey = UUID.randomUUID().toString();
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(CLIENT_COOKIE, clientKey)
+                    .path("/").httpOnly(true).sameSite("Lax").build().toString());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.unpin();
+            if (write && response.getStatus() < 400) {
+                tracker.recordWrite(clientKey);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        Cookie cookie = WebUtils.getCookie(request, CLIENT_COOKIE);
+        return cookie != null && !cookie.getValue().isBlank() ? cookie.getValue() : null;
+    }
+
+    private boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.blogapp.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently so their reads can be pinned to the primary
+ * until replication has caught up.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxTrackedClients;
+    // Slots freed per eviction once every entry is live, so the sort is paid once per batch of new clients
+    private final int evictionBatch;
+
+    public ReadYourWritesTracker(Duration window, int maxTrackedClients) {
+        this.windowNanos = window.toNanos();
+        this.maxTrackedClients = maxTrackedClients;
+        this.evictionBatch = Math.max(1, maxTrackedClients / 10);
+    }
+
+    public void recordWrite(String clientKey) {
+        if (lastWriteNanos.size() >= maxTrackedClients) {
+            evict();
+        }
+        lastWriteNanos.put(clientKey, System.nanoTime());
+    }
+
+    public boolean wroteRecently(String clientKey) {
+        Long writtenAt = lastWriteNanos.get(clientKey);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(clientKey, writtenAt);
+        return false;
+    }
+
+    // Pinning is per thread so it covers every transaction of the current request
+    public void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public void unpin() {
+        PINNED.remove();
+    }
+
+    public boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        int excess = lastWriteNanos.size() - (maxTrackedClients - evictionBatch);
+        if (excess > 0) {
+            // Every entry left is still live: drop the oldest, which are closest to expiring anyway, and never
+            // the rest, so a client minting fresh cookies cannot wipe everyone else's stickiness
+            long[] writes = lastWriteNanos.values().stream().mapToLong(Long::longValue).sorted().toArray();
+            long cutoff = writes[Math.min(excess, writes.length) - 1];
+            lastWriteNanos.values().removeIf(writtenAt -> writtenAt - cutoff <= 0);
+        }
+    }
+}
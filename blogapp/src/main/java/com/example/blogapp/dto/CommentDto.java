@@ -1,5 +1,6 @@
 package com.example.blogapp.dto;
 
+import com.example.blogapp.entity.Comment;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -8,9 +9,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class CommentDto {
 
     private Long id;
@@ -24,6 +23,32 @@ public class CommentDto {
     @NotNull(message = "User ID is required")
     private Long userId;
 
+    // Set to reply to another comment on the same post
+    private Long parentId;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Also the constructor behind CommentRepository's JPQL projection; parameters are assigned by name
+    @Builder
+    public CommentDto(Long id, String content, Long postId, Long userId, Long parentId,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.content = content;
+        this.postId = postId;
+        this.userId = userId;
+        this.parentId = parentId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static CommentDto from(Comment comment) {
+        return new CommentDto(comment.getId(), comment.getContent(), comment.getPost().getId(),
+                comment.getUser().getId(), comment.getParentId(), comment.getCreatedAt(), comment.getUpdatedAt());
+    }
+
+    public static CommentDto copyOf(CommentDto comment) {
+        return new CommentDto(comment.getId(), comment.getContent(), comment.getPostId(), comment.getUserId(),
+                comment.getParentId(), comment.getCreatedAt(), comment.getUpdatedAt());
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.blogapp.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One comment of a thread, in depth-first order; depth 0 is the top-level comment
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentNodeDto {
+
+    private Long id;
+    private Long parentId;
+    private Long userId;
+    private String content;
+    private LocalDateTime createdAt;
+    private int depth;
+}
@@ -0,0 +1,18 @@
+package com.example.blogapp.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Listing row for a comment, read straight from the index-ordered query without loading the entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentSummaryDto {
+
+    private Long id;
+    private Long postId;
+    private String content;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.example.blogapp.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated listing; pass nextCursor back to get the following page
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // Null on the last page
+    private String nextCursor;
+
+    public static final int MAX_SIZE = 100;
+
+    public static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    /**
+     * @param rows up to size + 1 rows; the extra row only signals that another page exists
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.blogapp.dto;
+
+import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Entity to response DTO mapping for the service layer. Each DTO builds itself through its own
+ * named factories ({@code from}, {@code copyOf}), which call the DTO's explicit constructor in the
+ * same file, and every list is sized up front, so a list response allocates the DTOs and their
+ * collections and nothing else: no builder per object, no stream pipeline per list.
+ */
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    public static PostDto toDto(Post post) {
+        return PostDto.from(post);
+    }
+
+    public static CommentDto toDto(Comment comment) {
+        return CommentDto.from(comment);
+    }
+
+    public static UserDto toDto(User user) {
+        return UserDto.from(user);
+    }
+
+    public static List<PostDto> toPostDtos(Collection<Post> posts) {
+        List<PostDto> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            dtos.add(PostDto.from(post));
+        }
+        return dtos;
+    }
+
+    public static List<CommentDto> toCommentDtos(Collection<Comment> comments) {
+        List<CommentDto> dtos = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            dtos.add(CommentDto.from(comment));
+        }
+        return dtos;
+    }
+
+    // Copies for callers that must not share a DTO with another request, such as SingleFlight followers
+    public static PostDto copy(PostDto post) {
+        return PostDto.copyOf(post);
+    }
+
+    public static CommentDto copy(CommentDto comment) {
+        return CommentDto.copyOf(comment);
+    }
+
+    public static UserDto copy(UserDto user) {
+        return UserDto.copyOf(user);
+    }
+}
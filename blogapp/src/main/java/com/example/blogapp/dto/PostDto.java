@@ -2,15 +2,23 @@ package com.example.blogapp.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.Tag;
 import lombok.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 @Getter
 @Setter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class PostDto {
 
     private Long id;
@@ -24,9 +32,72 @@ public class PostDto {
     @NotNull(message = "User ID is required")
     private Long userId;
 
+    // Omitted on update to keep the current tags; an empty set removes them all
+    @Size(max = 10, message = "At most 10 tags are allowed")
+    private Set<@Pattern(regexp = "[A-Za-z0-9-]{1,50}", message = "Tags may only contain letters, digits and '-'") String> tags;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Persisted count; views from the current flush interval are not included yet
+    private Long viewCount;
+
     // To show comments for each post
     private List<CommentDto> comments;
+
+    // Parameters are assigned by name, so reordering the fields above changes neither this signature nor its callers
+    @Builder
+    public PostDto(Long id, String title, String content, Long userId, Set<String> tags,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long viewCount, List<CommentDto> comments) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.userId = userId;
+        this.tags = tags;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.viewCount = viewCount;
+        this.comments = comments;
+    }
+
+    public static PostDto from(Post post) {
+        List<CommentDto> comments = null;
+        if (post.getComments() != null) {
+            comments = new ArrayList<>(post.getComments().size());
+            for (Comment comment : post.getComments()) {
+                comments.add(CommentDto.from(comment));
+            }
+        }
+        return new PostDto(post.getId(), post.getTitle(), post.getContent(), post.getUser().getId(),
+                tagNames(post.getTags()), post.getCreatedAt(), post.getUpdatedAt(), post.getViewCount(), comments);
+    }
+
+    // A copy for callers that must not share a DTO with another request, such as SingleFlight followers
+    public static PostDto copyOf(PostDto post) {
+        List<CommentDto> comments = null;
+        if (post.getComments() != null) {
+            comments = new ArrayList<>(post.getComments().size());
+            for (CommentDto comment : post.getComments()) {
+                comments.add(CommentDto.copyOf(comment));
+            }
+        }
+        return new PostDto(post.getId(), post.getTitle(), post.getContent(), post.getUserId(),
+                post.getTags() != null ? new TreeSet<>(post.getTags()) : null,
+                post.getCreatedAt(), post.getUpdatedAt(), post.getViewCount(), comments);
+    }
+
+    // Sorted so responses list tags in a stable order; most posts have none and share one empty set
+    private static SortedSet<String> tagNames(Set<Tag> tags) {
+        if (tags == null) {
+            return null;
+        }
+        if (tags.isEmpty()) {
+            return Collections.emptySortedSet();
+        }
+        SortedSet<String> names = new TreeSet<>();
+        for (Tag tag : tags) {
+            names.add(tag.getName());
+        }
+        return names;
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.blogapp.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Listing row for a post, read straight from the index-ordered query without loading the entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDto {
+
+    private Long id;
+    private String title;
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,7 @@
 package com.example.blogapp.dto;
 
+import com.example.blogapp.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
@@ -7,9 +9,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class UserDto {
 
     private Long id;
@@ -20,9 +20,34 @@ public class UserDto {
     @NotBlank(message = "Full name is required")
     private String fullName;
 
+    // Accepted on create/update; the service never fills it in, so it is left out of responses
     @NotBlank(message = "Password is required")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String password;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Also the constructor behind UserRepository's JPQL projection; parameters are assigned by name
+    @Builder
+    public UserDto(Long id, String username, String fullName, String password,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.password = password;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // The password is never copied into a response
+    public static UserDto from(User user) {
+        return new UserDto(user.getId(), user.getUsername(), user.getFullName(), null,
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    public static UserDto copyOf(UserDto user) {
+        return new UserDto(user.getId(), user.getUsername(), user.getFullName(), user.getPassword(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
 }
@@ -8,7 +8,13 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_id", columnList = "post_id, id"),
+        @Index(name = "idx_comments_user_created", columnList = "user_id, created_at desc, id desc"),
+        @Index(name = "idx_comments_post_parent", columnList = "post_id, parent_id, id"),
+        @Index(name = "idx_comments_root_path", columnList = "root_id, path"),
+        @Index(name = "idx_comments_parent", columnList = "parent_id")
+})
 @Getter
 @Setter
 @Builder
@@ -31,6 +37,15 @@ public class Comment {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Thread position; see V5__comment_threads.sql for the path format
+    private Long parentId;
+
+    @Column(nullable = false)
+    private Long rootId;
+
+    @Column(nullable = false, length = 1000)
+    private String path;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
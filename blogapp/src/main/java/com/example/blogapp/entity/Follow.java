@@ -0,0 +1,45 @@
+package com.example.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "follows", indexes = {
+        @Index(name = "idx_follows_followee", columnList = "followee_id, follower_id")
+})
+@IdClass(Follow.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+
+    // Plain ids rather than associations: fan-out only ever needs the numbers
+    @Id
+    @Column(name = "follower_id")
+    private Long followerId;
+
+    @Id
+    @Column(name = "followee_id")
+    private Long followeeId;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private Long followerId;
+        private Long followeeId;
+    }
+}
@@ -5,10 +5,15 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_user_created", columnList = "user_id, created_at desc, id desc"),
+        @Index(name = "idx_posts_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @Builder
@@ -37,6 +42,17 @@ public class Post {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Written only by PostViewCounter's batched flush, so saving a loaded post never overwrites newer counts
+    @Column(insertable = false, updatable = false)
+    private long viewCount;
+
+    @ManyToMany
+    @JoinTable(name = "post_tags",
+            joinColumns = @JoinColumn(name = "post_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @Builder.Default
+    private Set<Tag> tags = new HashSet<>();
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments;
 
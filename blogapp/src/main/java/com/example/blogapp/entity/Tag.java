@@ -0,0 +1,22 @@
+package com.example.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "tags")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Stored lower-case; see PostServiceImpl.normalizeTags
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+}
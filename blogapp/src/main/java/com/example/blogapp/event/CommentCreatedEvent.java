@@ -0,0 +1,9 @@
+package com.example.blogapp.event;
+
+import com.example.blogapp.dto.CommentDto;
+
+/**
+ * Published when a new comment is saved, carrying the comment as returned to its author.
+ */
+public record CommentCreatedEvent(CommentDto comment) {
+}
@@ -0,0 +1,7 @@
+package com.example.blogapp.event;
+
+/**
+ * Published when a user follows or unfollows another user.
+ */
+public record FollowsChangedEvent(Long followerId) {
+}
@@ -0,0 +1,7 @@
+package com.example.blogapp.event;
+
+/**
+ * Published when a post or any of its comments changed, so derived copies of the post can be dropped.
+ */
+public record PostChangedEvent(Long postId) {
+}
@@ -0,0 +1,7 @@
+package com.example.blogapp.event;
+
+/**
+ * Published when a new post is saved.
+ */
+public record PostCreatedEvent(Long postId, Long authorId) {
+}
@@ -0,0 +1,9 @@
+package com.example.blogapp.event;
+
+import java.util.Set;
+
+/**
+ * Published when tags are added to or removed from a post, including on create and delete.
+ */
+public record PostTagsChangedEvent(Long postId, Set<String> removed, Set<String> added) {
+}
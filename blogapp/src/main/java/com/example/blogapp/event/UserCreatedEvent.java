@@ -0,0 +1,7 @@
+package com.example.blogapp.event;
+
+/**
+ * Published when a new user is saved.
+ */
+public record UserCreatedEvent(Long userId) {
+}
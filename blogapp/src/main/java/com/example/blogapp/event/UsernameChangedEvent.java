@@ -0,0 +1,8 @@
+package com.example.blogapp.event;
+
+/**
+ * Published when a username appears or disappears: {@code oldUsername} is null for a new user,
+ * {@code newUsername} is null for a deleted one.
+ */
+public record UsernameChangedEvent(String oldUsername, String newUsername) {
+}
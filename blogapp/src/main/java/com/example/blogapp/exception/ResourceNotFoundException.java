@@ -1,5 +1,9 @@
 package com.example.blogapp.exception;
 
+/**
+ * Thrown when a looked-up row does not exist. Probes for random ids make this a hot path,
+ * so it captures no stack trace and builds its message only when someone reads it.
+ */
 public class ResourceNotFoundException extends RuntimeException {
 
     private final String resourceName;
@@ -7,12 +11,17 @@ public class ResourceNotFoundException extends RuntimeException {
     private final Object fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        super(null, null, false, false);
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
 
+    @Override
+    public String getMessage() {
+        return resourceName + " not found with " + fieldName + " : '" + fieldValue + "'";
+    }
+
     public String getResourceName() {
         return resourceName;
     }
@@ -0,0 +1,116 @@
+package com.example.blogapp.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters packed 16 to a long, so entries can be removed again.
+ * Updates are lock-free CAS on the containing long. A counter that reaches 15 sticks there,
+ * which can only cause extra false positives, never false negatives.
+ */
+public class CountingBloomFilter {
+
+    private static final int BITS_PER_COUNTER = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / BITS_PER_COUNTER;
+    private static final long COUNTER_MAX = 0xF;
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+
+    public CountingBloomFilter(long expectedEntries, double falsePositiveRate) {
+        long expected = Math.max(1, expectedEntries);
+        this.counterCount = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expected * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    public void add(String value) {
+        long[] hashes = hashes(value);
+        for (int i = 0; i < hashCount; i++) {
+            update(index(hashes, i), 1);
+        }
+    }
+
+    // A value with a zero counter was certainly never added; decrementing its other counters would
+    // take them from values that were, so it is left alone
+    public void remove(String value) {
+        long[] hashes = hashes(value);
+        if (!mightContain(hashes)) {
+            return;
+        }
+        for (int i = 0; i < hashCount; i++) {
+            update(index(hashes, i), -1);
+        }
+    }
+
+    /**
+     * @return false if the value was definitely never added (or has been removed)
+     */
+    public boolean mightContain(String value) {
+        return mightContain(hashes(value));
+    }
+
+    private boolean mightContain(long[] hashes) {
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(index(hashes, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long counter(long index) {
+        int shift = shift(index);
+        return (words.get(word(index)) >>> shift) & COUNTER_MAX;
+    }
+
+    private void update(long index, int delta) {
+        int word = word(index);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MAX;
+            if (counter == COUNTER_MAX || (delta < 0 && counter == 0)) {
+                return;
+            }
+            long updated = (current & ~(COUNTER_MAX << shift)) | ((counter + delta) << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], counterCount);
+    }
+
+    private static int word(long index) {
+        return (int) (index / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * BITS_PER_COUNTER;
+    }
+
+    // Two independent 64-bit hashes (FNV-1a, then mixed), combined as h1 + i * h2
+    private static long[] hashes(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        long h1 = mix(hash);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53f4d63L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
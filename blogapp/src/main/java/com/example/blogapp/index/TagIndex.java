@@ -0,0 +1,115 @@
+package com.example.blogapp.index;
+
+import com.example.blogapp.event.PostTagsChangedEvent;
+import com.example.blogapp.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag to post-id index kept as one compressed Roaring bitmap per tag.
+ *
+ * Finding posts that carry every requested tag is a bitmap intersection, which touches
+ * compressed 64K-id chunks instead of joining post_tags once per tag. Bitmaps are not
+ * thread-safe, so reads share a read lock and the rare tag changes take the write lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagIndex {
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Roaring64Bitmap> postsByTag = new HashMap<>();
+    private volatile boolean ready;
+
+    // Holds the write lock while reading, so changes committed meanwhile are applied after it
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postsByTag.clear();
+            for (Object[] row : postRepository.findAllTagAssignments()) {
+                postsByTag.computeIfAbsent((String) row[0], tag -> new Roaring64Bitmap()).addLong((Long) row[1]);
+            }
+            postsByTag.values().forEach(Roaring64Bitmap::runOptimize);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ids of the newest posts carrying all the given tags, highest id first
+    public List<Long> findNewest(Collection<String> tags, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Roaring64Bitmap> bitmaps = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                Roaring64Bitmap bitmap = postsByTag.get(tag);
+                if (bitmap == null) {
+                    return List.of();
+                }
+                bitmaps.add(bitmap);
+            }
+            if (bitmaps.isEmpty()) {
+                return List.of();
+            }
+            // Smallest first keeps every intermediate result as small as possible
+            bitmaps.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+            Roaring64Bitmap matches = bitmaps.size() == 1
+                    ? bitmaps.get(0)
+                    : Roaring64Bitmap.and(bitmaps.get(0), bitmaps.get(1));
+            for (int i = 2; i < bitmaps.size() && !matches.isEmpty(); i++) {
+                matches.and(bitmaps.get(i));
+            }
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, (int) Math.min(matches.getLongCardinality(), Integer.MAX_VALUE)));
+            LongIterator newestFirst = matches.getReverseLongIterator();
+            while (newestFirst.hasNext() && ids.size() < limit) {
+                ids.add(newestFirst.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostTagsChanged(PostTagsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (String tag : event.removed()) {
+                Roaring64Bitmap bitmap = postsByTag.get(tag);
+                if (bitmap != null) {
+                    bitmap.removeLong(event.postId());
+                    if (bitmap.isEmpty()) {
+                        postsByTag.remove(tag);
+                    }
+                }
+            }
+            for (String tag : event.added()) {
+                postsByTag.computeIfAbsent(tag, name -> new Roaring64Bitmap()).addLong(event.postId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
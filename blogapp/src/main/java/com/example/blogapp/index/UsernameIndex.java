@@ -0,0 +1,92 @@
+package com.example.blogapp.index;
+
+import com.example.blogapp.config.UsernameIndexProperties;
+import com.example.blogapp.event.UsernameChangedEvent;
+import com.example.blogapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory Bloom filter of taken usernames. A miss means the name is free without asking the
+ * database; a hit still has to be confirmed there.
+ */
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(UsernameIndexProperties.class)
+public class UsernameIndex {
+
+    private final UserRepository userRepository;
+    private final UsernameIndexProperties properties;
+
+    // Null until the startup rebuild finished; every name counts as possibly taken until then
+    private volatile CountingBloomFilter filter;
+
+    // Guards the swap and pending, so no change falls between the buffer and the new filter
+    private final Object lock = new Object();
+
+    // Non-null while a rebuild reads the table: changes that commit meanwhile, to replay on the new filter
+    private List<UsernameChangedEvent> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        long userCount = userRepository.count();
+        // A buffered change may or may not be in the snapshot already, so replaying goes by what is counted
+        Set<String> counted = new HashSet<>(userRepository.findAllUsernames());
+        CountingBloomFilter rebuilt = new CountingBloomFilter(
+                Math.max(properties.getExpectedUsers(), 2 * userCount), properties.getFalsePositiveRate());
+        counted.forEach(rebuilt::add);
+        synchronized (lock) {
+            for (UsernameChangedEvent event : pending) {
+                if (event.oldUsername() != null && counted.remove(event.oldUsername())) {
+                    rebuilt.remove(event.oldUsername());
+                }
+                if (event.newUsername() != null && counted.add(event.newUsername())) {
+                    rebuilt.add(event.newUsername());
+                }
+            }
+            filter = rebuilt;
+            pending = null;
+        }
+    }
+
+    public boolean mightBeTaken(String username) {
+        CountingBloomFilter current = filter;
+        return current == null || current.mightContain(username);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsernameChanged(UsernameChangedEvent event) {
+        if (Objects.equals(event.oldUsername(), event.newUsername())) {
+            return;
+        }
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            CountingBloomFilter current = filter;
+            if (current == null) {
+                return;
+            }
+            if (event.newUsername() != null) {
+                current.add(event.newUsername());
+            }
+            if (event.oldUsername() != null) {
+                current.remove(event.oldUsername());
+            }
+        }
+    }
+}
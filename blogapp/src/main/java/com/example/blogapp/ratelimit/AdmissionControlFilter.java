@@ -0,0 +1,56 @@
+package com.example.blogapp.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests inside the service layer at once and sheds the rest with 503,
+ * so a burst queues outside instead of on the connection pool.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final int maxConcurrentRequests;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    public AdmissionControlFilter(int maxConcurrentRequests, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("blogapp.requests.rejected")
+                .tag("reason", "overloaded")
+                .register(meterRegistry);
+        Gauge.builder("blogapp.requests.in_flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ProblemResponses.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many requests in progress, retry shortly");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.blogapp.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Problem detail bodies for rejections made in a filter, before the MVC exception handlers are
+ * reached, so they look the same as every other error response.
+ */
+final class ProblemResponses {
+
+    private ProblemResponses() {
+    }
+
+    static void write(ObjectMapper objectMapper, HttpServletRequest request, HttpServletResponse response,
+                      HttpStatus status, String detail) throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
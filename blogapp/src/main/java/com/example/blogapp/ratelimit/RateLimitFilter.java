@@ -0,0 +1,48 @@
+package com.example.blogapp.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects a client with 429 once it has used up its token bucket.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public RateLimitFilter(TokenBucketRateLimiter limiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("blogapp.requests.rejected")
+                .tag("reason", "rate_limited")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            rejected.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            ProblemResponses.write(objectMapper, request, response, HttpStatus.TOO_MANY_REQUESTS,
+                    "Rate limit exceeded, retry after " + retryAfterSeconds + "s");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
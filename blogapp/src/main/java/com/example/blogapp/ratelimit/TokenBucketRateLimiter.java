@@ -0,0 +1,71 @@
+package com.example.blogapp.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket per client key.
+ * Each bucket is a single "theoretical arrival time" (GCRA), so taking a token is one CAS and
+ * a full bucket is simply a time in the past. Idle buckets are evicted once the number of
+ * tracked keys goes over the limit. Live buckets are never dropped: while every tracked bucket
+ * is live, new keys share one overflow bucket, so rotating through fresh addresses neither
+ * resets anyone's bucket nor buys more than one client's rate.
+ */
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(double tokensPerSecond, int burst, int maxTrackedKeys) {
+        this(tokensPerSecond, burst, maxTrackedKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double tokensPerSecond, int burst, int maxTrackedKeys, LongSupplier nanoClock) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * burst;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.nanoClock = nanoClock;
+        this.overflow = new AtomicLong(nanoClock.getAsLong() - burstNanos);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanos to wait before the next one is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedKeys) {
+                evictIdle(now);
+            }
+            // Concurrent new keys may overshoot the limit by a few; the bound only needs to hold roughly
+            bucket = buckets.size() < maxTrackedKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(now - burstNanos))
+                    : overflow;
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now - burstNanos) + nanosPerToken;
+            if (next > now) {
+                return next - now;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int trackedKeys() {
+        return buckets.size();
+    }
+
+    private void evictIdle(long now) {
+        // A bucket that has refilled completely holds no state worth keeping
+        buckets.values().removeIf(bucket -> bucket.get() <= now - burstNanos);
+    }
+}
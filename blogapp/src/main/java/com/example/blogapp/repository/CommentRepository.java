@@ -1,14 +1,78 @@
 package com.example.blogapp.repository;
 
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.CommentSummaryDto;
 import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Post;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     //List<Comment> findByPostId(Long postId);
-}
 
+    @Query("select c.post.id from Comment c where c.id = :id")
+    Optional<Long> findPostIdById(Long id);
+
+    // Both walk idx_comments_user_created in order and stop after limit rows
+    @Query("select new com.example.blogapp.dto.CommentSummaryDto(c.id, c.post.id, c.content, c.createdAt) from Comment c " +
+            "where c.user.id = :userId order by c.createdAt desc, c.id desc")
+    List<CommentSummaryDto> findSummariesByUserId(Long userId, Limit limit);
+
+    // The redundant createdAt bound lets the planner seek to the cursor instead of filtering from the newest row
+    @Query("select new com.example.blogapp.dto.CommentSummaryDto(c.id, c.post.id, c.content, c.createdAt) from Comment c " +
+            "where c.user.id = :userId and c.createdAt <= :createdAt " +
+            "and (c.createdAt < :createdAt or c.id < :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentSummaryDto> findSummariesByUserIdBefore(Long userId, LocalDateTime createdAt, Long id, Limit limit);
+
+    // [postId, createdAt] of recent comments, used to warm the trending ranking at startup
+    @Query("select c.post.id, c.createdAt from Comment c where c.createdAt > :since")
+    List<Object[]> findPostActivitySince(LocalDateTime since);
 
+    // A page of top-level threads after afterId, each cut to its first replies + 1 rows in depth-first order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(value = "select t.id as id, t.parent_id as parentId, t.user_id as userId, t.content as content, " +
+            "t.created_at as createdAt, t.path as path from (" +
+            "  select c.id, c.parent_id, c.user_id, c.content, c.created_at, c.path, " +
+            "    row_number() over (partition by c.root_id order by c.path) as rn " +
+            "  from comments c join (" +
+            "    select r.id from comments r where r.post_id = :postId and r.parent_id is null and r.id > :afterId " +
+            "    order by r.id limit :threads" +
+            "  ) roots on c.root_id = roots.id" +
+            ") t where t.rn <= :replies + 1 order by t.path", nativeQuery = true)
+    List<CommentTreeRow> findThreads(Long postId, Long afterId, int threads, int replies);
 
+    // One chunk of a full listing in id order, without loading entities; the PK index serves the bound and the sort
+    @Query("select new com.example.blogapp.dto.CommentDto(c.id, c.content, c.post.id, c.user.id, c.parentId, " +
+            "c.createdAt, c.updatedAt) from Comment c where c.id > :afterId order by c.id")
+    List<CommentDto> findChunkAfter(Long afterId, Limit limit);
+
+    // Moves a whole thread along with its top-level comment
+    @Modifying
+    @Query("update Comment c set c.post = :post where c.rootId = :rootId")
+    void moveThread(Long rootId, Post post);
+
+    // Single statement so the parent_id cascade never races Hibernate's per-row deletes
+    @Modifying
+    @Query("delete from Comment c where c.post.id = :postId")
+    void deleteByPostId(Long postId);
+
+    interface CommentTreeRow {
+        Long getId();
+        Long getParentId();
+        Long getUserId();
+        String getContent();
+        LocalDateTime getCreatedAt();
+        String getPath();
+    }
+}
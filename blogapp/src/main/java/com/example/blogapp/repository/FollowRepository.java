@@ -0,0 +1,26 @@
+package com.example.blogapp.repository;
+
+import com.example.blogapp.entity.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Follow.Key> {
+
+    @Query("select f.followeeId from Follow f where f.followerId = :followerId")
+    List<Long> findFolloweeIds(Long followerId);
+
+    @Query("select f.followerId from Follow f where f.followeeId = :followeeId")
+    List<Long> findFollowerIds(Long followeeId);
+
+    long countByFolloweeId(Long followeeId);
+
+    // Authors among the given ids whose posts are merged at read time instead of fanned out
+    @Query("select f.followeeId from Follow f where f.followeeId in :followeeIds " +
+            "group by f.followeeId having count(f) > :threshold")
+    List<Long> findFolloweesWithMoreFollowersThan(Collection<Long> followeeIds, long threshold);
+}
@@ -1,13 +1,54 @@
 package com.example.blogapp.repository;
 
+import com.example.blogapp.dto.PostSummaryDto;
 import com.example.blogapp.entity.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    //List<Post> findByAuthor_Id(Long authorId);
-}
+    // Both walk idx_posts_user_created in order and stop after limit rows
+    @Query("select new com.example.blogapp.dto.PostSummaryDto(p.id, p.title, p.createdAt) from Post p " +
+            "where p.user.id = :userId order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findSummariesByUserId(Long userId, Limit limit);
+
+    // The redundant createdAt bound lets the planner seek to the cursor instead of filtering from the newest row
+    @Query("select new com.example.blogapp.dto.PostSummaryDto(p.id, p.title, p.createdAt) from Post p " +
+            "where p.user.id = :userId and p.createdAt <= :createdAt " +
+            "and (p.createdAt < :createdAt or p.id < :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findSummariesByUserIdBefore(Long userId, LocalDateTime createdAt, Long id, Limit limit);
+
+    // One chunk of a full listing in id order; the PK index serves both the bound and the sort
+    @Query("select p from Post p where p.id > :afterId order by p.id")
+    List<Post> findChunkAfter(Long afterId, Limit limit);
+
+    // Timeline reads: ids order the same way as creation time, and the PK index serves the sort
+    @Query("select p.id from Post p where p.user.id in :userIds and p.id < :beforeId order by p.id desc")
+    List<Long> findIdsByUserIdInBefore(Collection<Long> userIds, Long beforeId, Limit limit);
 
+    @Query("select new com.example.blogapp.dto.PostSummaryDto(p.id, p.title, p.createdAt) from Post p " +
+            "where p.id in :ids order by p.id desc")
+    List<PostSummaryDto> findSummariesByIdIn(Collection<Long> ids);
 
+    // [id, createdAt] of recent posts, used to warm the trending ranking at startup
+    @Query("select p.id, p.createdAt from Post p where p.createdAt > :since")
+    List<Object[]> findCreatedSince(LocalDateTime since);
+
+    // Same answer as TagIndex, used while the index is still being built
+    @Query("select p.id from Post p join p.tags t where t.name in :tags " +
+            "group by p.id having count(t.id) = :tagCount order by p.id desc")
+    List<Long> findIdsWithAllTags(Collection<String> tags, long tagCount, Limit limit);
+
+    @Query("select t.name from Post p join p.tags t where p.id = :id")
+    List<String> findTagNamesById(Long id);
+
+    // [tag name, post id] for every tagged post, used to build TagIndex
+    @Query("select t.name, p.id from Post p join p.tags t")
+    List<Object[]> findAllTagAssignments();
+}
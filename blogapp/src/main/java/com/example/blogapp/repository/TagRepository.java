@@ -0,0 +1,22 @@
+package com.example.blogapp.repository;
+
+import com.example.blogapp.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    // In the caller's transaction: MERGE waits for a concurrent post creating the same tag and then matches its row,
+    // so it neither fails on uk_tags_name nor needs a second pooled connection
+    @Modifying
+    @Query(value = "merge into tags (name) key (name) values (:name)", nativeQuery = true)
+    void insertIfAbsent(String name);
+}
@@ -1,13 +1,31 @@
 package com.example.blogapp.repository;
 
+import com.example.blogapp.dto.UserDto;
 import com.example.blogapp.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    //List<User> findByUsername(String username);
+    // Served by the unique index on users.username
+    Optional<User> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
+
+    @Query("select u.username from User u where u.id = :id")
+    Optional<String> findUsernameById(Long id);
+
+    // One chunk of a full listing in id order; the password hash is never selected
+    @Query("select new com.example.blogapp.dto.UserDto(u.id, u.username, u.fullName, cast(null as String), " +
+            "u.createdAt, u.updatedAt) from User u where u.id > :afterId order by u.id")
+    List<UserDto> findChunkAfter(Long afterId, Limit limit);
 }
 
 
@@ -0,0 +1,84 @@
+package com.example.blogapp.security;
+
+import com.example.blogapp.config.PasswordHashingProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing on a small bounded pool. Signup bursts queue here instead of pinning every
+ * web thread on CPU, and are shed with 503 once the queue is full.
+ */
+@Component
+@EnableConfigurationProperties(PasswordHashingProperties.class)
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final String dummyHash;
+
+    public PasswordHasher(PasswordHashingProperties properties) {
+        this.encoder = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getHashingThreads(), properties.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String hashedPassword) {
+        return run(() -> encoder.matches(rawPassword, hashedPassword));
+    }
+
+    // Costs as much as a real comparison and never matches, for logins with an unknown username
+    public boolean matchesDummy(String rawPassword) {
+        matches(rawPassword, dummyHash);
+        return false;
+    }
+
+    // True when the hash was made with weaker parameters than the current configuration
+    public boolean needsRehash(String hashedPassword) {
+        return encoder.upgradeEncoding(hashedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Password hashing is overloaded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
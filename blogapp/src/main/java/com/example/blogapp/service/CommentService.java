@@ -1,12 +1,17 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.CursorPage;
 import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.CommentNodeDto;
+import com.example.blogapp.dto.CommentSummaryDto;
 import java.util.List;
 
 public interface CommentService {
 
-    List<CommentDto> getAllComments();
+    List<CommentDto> getCommentsAfter(long afterId, int limit);
     CommentDto getCommentById(Long id);
+    CursorPage<CommentSummaryDto> getCommentsByUser(Long userId, String cursor, int size);
+    List<CommentNodeDto> getCommentTree(Long postId, Long afterId, int threads, int replies);
     CommentDto createComment(CommentDto commentDto);
     CommentDto updateComment(Long id, CommentDto commentDto);
     void deleteComment(Long id);
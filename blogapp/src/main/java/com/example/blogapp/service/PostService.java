@@ -1,13 +1,19 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.CursorPage;
 import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.PostSummaryDto;
 
 import java.util.List;
+import java.util.Set;
 
 public interface PostService {
 
-    List<PostDto> getAllPosts();
+    List<PostDto> getPostsAfter(long afterId, int limit);
+    List<PostDto> getPostsByTags(Set<String> tags, int limit);
     PostDto getPostById(Long id);
+    List<PostSummaryDto> getTrendingPosts(int limit);
+    CursorPage<PostSummaryDto> getPostsByUser(Long userId, String cursor, int size);
     PostDto createPost(PostDto postDto);
     PostDto updatePost(Long id, PostDto postDto);
     void deletePost(Long id);
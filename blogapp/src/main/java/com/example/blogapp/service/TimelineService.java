@@ -0,0 +1,11 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.PostSummaryDto;
+
+public interface TimelineService {
+
+    void follow(Long followerId, Long followeeId);
+    void unfollow(Long followerId, Long followeeId);
+    CursorPage<PostSummaryDto> getTimeline(Long userId, String cursor, int size);
+}
@@ -1,6 +1,7 @@
 
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.LoginDto;
 import com.example.blogapp.dto.UserDto;
 
 import java.util.List;
@@ -8,7 +9,10 @@ import java.util.List;
 public interface UserService {
     UserDto createUser(UserDto userDto);
     UserDto getUserById(Long id);
-    List<UserDto> getAllUsers();
+    UserDto getUserByUsername(String username);
+    boolean isUsernameAvailable(String username);
+    List<UserDto> getUsersAfter(long afterId, int limit);
     UserDto updateUser(Long id, UserDto userDto);
     void deleteUser(Long id);
+    UserDto login(LoginDto loginDto);
 }
@@ -1,42 +1,106 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.DtoMapper;
 import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.CommentNodeDto;
+import com.example.blogapp.dto.KeysetCursor;
+import com.example.blogapp.dto.CommentSummaryDto;
 import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.Post;
 import com.example.blogapp.entity.User;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.event.PostChangedEvent;
 import com.example.blogapp.exception.ResourceNotFoundException;
 import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.repository.PostRepository;
 import com.example.blogapp.repository.UserRepository;
 import com.example.blogapp.service.CommentService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
+    // Each path segment is a 19-digit id plus '/'; 50 levels fit the 1000-character column
+    private static final int PATH_SEGMENT_LENGTH = 20;
+    private static final int MAX_DEPTH = 50;
+    private static final int MAX_REPLIES = 500;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final NegativeLookupCache negativeLookupCache;
 
+    // One chunk of the full listing, read without loading entities
     @Override
-    public List<CommentDto> getAllComments() {
-        List<Comment> comments = commentRepository.findAll();
-        return comments.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<CommentDto> getCommentsAfter(long afterId, int limit) {
+        return commentRepository.findChunkAfter(afterId, Limit.of(CursorPage.clampSize(limit)));
     }
 
     @Override
     public CommentDto getCommentById(Long id) {
-        Comment comment = commentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id));
-        return mapToDto(comment);
+        return negativeLookupCache.lookup(NegativeLookupCache.COMMENT, id, () -> singleFlight.load("comment", id, () -> {
+            Comment comment = commentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id));
+            return DtoMapper.toDto(comment);
+        }, DtoMapper::copy));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentSummaryDto> getCommentsByUser(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        int pageSize = CursorPage.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<CommentSummaryDto> rows;
+        if (cursor == null) {
+            rows = commentRepository.findSummariesByUserId(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = commentRepository.findSummariesByUserIdBefore(userId, after.createdAt(), after.id(), limit);
+        }
+        return CursorPage.of(rows, pageSize, row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
+    }
+
+    // One query per page of threads, as flat rows in depth-first order; the tree is never built in memory
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentNodeDto> getCommentTree(Long postId, Long afterId, int threads, int replies) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        int replyLimit = Math.max(0, Math.min(replies, MAX_REPLIES));
+        List<CommentRepository.CommentTreeRow> rows = commentRepository.findThreads(
+                postId, afterId == null ? 0L : afterId, CursorPage.clampSize(threads), replyLimit);
+        List<CommentNodeDto> nodes = new ArrayList<>(rows.size());
+        for (CommentRepository.CommentTreeRow row : rows) {
+            nodes.add(new CommentNodeDto(row.getId(), row.getParentId(), row.getUserId(),
+                    row.getContent(), row.getCreatedAt(), depth(row.getPath())));
+        }
+        return nodes;
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(CommentDto commentDto) {
         Post post = postRepository.findById(commentDto.getPostId())
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", commentDto.getPostId()));
@@ -44,15 +108,38 @@ public class CommentServiceImpl implements CommentService {
         User user = userRepository.findById(commentDto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", commentDto.getUserId()));
 
+        Comment parent = null;
+        if (commentDto.getParentId() != null) {
+            parent = commentRepository.findById(commentDto.getParentId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentDto.getParentId()));
+            if (!parent.getPost().getId().equals(post.getId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent comment belongs to another post");
+            }
+            if (depth(parent.getPath()) + 1 >= MAX_DEPTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reply thread is too deep");
+            }
+        }
+
+        String parentPath = parent == null ? "" : parent.getPath();
         Comment comment = mapToEntity(commentDto);
         comment.setPost(post);
         comment.setUser(user);
+        // The path ends with the comment's own id, so it is completed after the insert, before commit
+        comment.setParentId(parent == null ? null : parent.getId());
+        comment.setRootId(parent == null ? 0L : parent.getRootId());
+        comment.setPath(parentPath);
 
         Comment savedComment = commentRepository.save(comment);
-        return mapToDto(savedComment);
+        savedComment.setRootId(parent == null ? savedComment.getId() : parent.getRootId());
+        savedComment.setPath(parentPath + pathSegment(savedComment.getId()));
+        CommentDto createdComment = DtoMapper.toDto(savedComment);
+        eventPublisher.publishEvent(new PostChangedEvent(post.getId()));
+        eventPublisher.publishEvent(new CommentCreatedEvent(createdComment));
+        return createdComment;
     }
 
     @Override
+    @Transactional
     public CommentDto updateComment(Long id, CommentDto commentDto) {
         Comment existingComment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id));
@@ -63,32 +150,45 @@ public class CommentServiceImpl implements CommentService {
         User user = userRepository.findById(commentDto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", commentDto.getUserId()));
 
+        Long previousPostId = existingComment.getPost().getId();
+        boolean moved = !previousPostId.equals(post.getId());
+        if (moved && existingComment.getParentId() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A reply cannot be moved to another post");
+        }
         existingComment.setContent(commentDto.getContent());
         existingComment.setPost(post);
         existingComment.setUser(user);
 
         Comment updatedComment = commentRepository.save(existingComment);
-        return mapToDto(updatedComment);
+        if (moved) {
+            commentRepository.moveThread(existingComment.getRootId(), post);
+        }
+        eventPublisher.publishEvent(new PostChangedEvent(previousPostId));
+        if (moved) {
+            eventPublisher.publishEvent(new PostChangedEvent(post.getId()));
+        }
+        return DtoMapper.toDto(updatedComment);
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long id) {
         if (!commentRepository.existsById(id)) {
             throw new ResourceNotFoundException("Comment", "id", id);
         }
+        commentRepository.findPostIdById(id)
+                .ifPresent(postId -> eventPublisher.publishEvent(new PostChangedEvent(postId)));
+        // Replies go with it through the parent_id cascade
         commentRepository.deleteById(id);
     }
 
     // Mapping helpers
-    private CommentDto mapToDto(Comment comment) {
-        return CommentDto.builder()
-                .id(comment.getId())
-                .content(comment.getContent())
-                .postId(comment.getPost().getId())
-                .userId(comment.getUser().getId())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .build();
+    private static String pathSegment(Long id) {
+        return String.format("%019d/", id);
+    }
+
+    private static int depth(String path) {
+        return path.length() / PATH_SEGMENT_LENGTH - 1;
     }
 
     private Comment mapToEntity(CommentDto commentDto) {
@@ -1,51 +1,133 @@
 package com.example.blogapp.service.impl;
 
-import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.DtoMapper;
 import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.KeysetCursor;
+import com.example.blogapp.dto.PostSummaryDto;
 import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.Tag;
 import com.example.blogapp.entity.User;
+import com.example.blogapp.event.PostChangedEvent;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.event.PostTagsChangedEvent;
 import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.index.TagIndex;
+import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.repository.PostRepository;
+import com.example.blogapp.repository.TagRepository;
 import com.example.blogapp.repository.UserRepository;
 import com.example.blogapp.service.PostService;
+import com.example.blogapp.trending.TrendingRanker;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
 
     private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrendingRanker trendingRanker;
+    private final TagRepository tagRepository;
+    private final TagIndex tagIndex;
+    private final SingleFlight singleFlight;
+    private final NegativeLookupCache negativeLookupCache;
 
+    // One chunk of the full listing; tags and comments are batch-fetched for the whole chunk
     @Override
-    public List<PostDto> getAllPosts() {
-        List<Post> posts = postRepository.findAll();
-        return posts.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<PostDto> getPostsAfter(long afterId, int limit) {
+        return DtoMapper.toPostDtos(postRepository.findChunkAfter(afterId, Limit.of(CursorPage.clampSize(limit))));
     }
 
     @Override
     public PostDto getPostById(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
-        return mapToDto(post);
+        return negativeLookupCache.lookup(NegativeLookupCache.POST, id, () -> singleFlight.load("post", id, () -> {
+            Post post = postRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
+            return DtoMapper.toDto(post);
+        }, DtoMapper::copy));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostDto> getPostsByTags(Set<String> tags, int limit) {
+        Set<String> names = normalizeTags(tags);
+        int pageSize = CursorPage.clampSize(limit);
+        List<Long> ids = tagIndex.isReady()
+                ? tagIndex.findNewest(names, pageSize)
+                : postRepository.findIdsWithAllTags(names, names.size(), Limit.of(pageSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Post> posts = new ArrayList<>(postRepository.findAllById(ids));
+        posts.sort(Comparator.comparing(Post::getId).reversed());
+        return DtoMapper.toPostDtos(posts);
+    }
+
+    // Served from the ranker's last snapshot, no database access
+    @Override
+    public List<PostSummaryDto> getTrendingPosts(int limit) {
+        return trendingRanker.getTrending(CursorPage.clampSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDto> getPostsByUser(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        int pageSize = CursorPage.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<PostSummaryDto> rows;
+        if (cursor == null) {
+            rows = postRepository.findSummariesByUserId(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = postRepository.findSummariesByUserIdBefore(userId, after.createdAt(), after.id(), limit);
+        }
+        return CursorPage.of(rows, pageSize, row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
     }
 
     @Override
+    @Transactional
     public PostDto createPost(PostDto postDto) {
         User user = userRepository.findById(postDto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", postDto.getUserId()));
 
+        Set<String> tagNames = normalizeTags(postDto.getTags());
         Post post = mapToEntity(postDto);
         post.setUser(user);
+        post.setTags(resolveTags(tagNames));
         Post savedPost = postRepository.save(post);
-        return mapToDto(savedPost);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), user.getId()));
+        if (!tagNames.isEmpty()) {
+            eventPublisher.publishEvent(new PostTagsChangedEvent(savedPost.getId(), Set.of(), tagNames));
+        }
+        return DtoMapper.toDto(savedPost);
     }
 
     @Override
+    @Transactional
     public PostDto updatePost(Long id, PostDto postDto) {
         Post existingPost = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
@@ -56,41 +138,69 @@ public class PostServiceImpl implements PostService {
         existingPost.setTitle(postDto.getTitle());
         existingPost.setContent(postDto.getContent());
         existingPost.setUser(user);
+        if (postDto.getTags() != null) {
+            replaceTags(existingPost, normalizeTags(postDto.getTags()));
+        }
 
         Post updatedPost = postRepository.save(existingPost);
-        return mapToDto(updatedPost);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
+        return DtoMapper.toDto(updatedPost);
     }
 
     @Override
+    @Transactional
     public void deletePost(Long id) {
         if (!postRepository.existsById(id)) {
             throw new ResourceNotFoundException("Post", "id", id);
         }
+        Set<String> tagNames = Set.copyOf(postRepository.findTagNamesById(id));
+        commentRepository.deleteByPostId(id);
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
+        if (!tagNames.isEmpty()) {
+            eventPublisher.publishEvent(new PostTagsChangedEvent(id, tagNames, Set.of()));
+        }
     }
 
-    // Mapping helpers
-    private PostDto mapToDto(Post post) {
-        return PostDto.builder()
-                .id(post.getId())
-                .title(post.getTitle())
-                .content(post.getContent())
-                .userId(post.getUser().getId())
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
-                // To show comments in the post:
-                .comments(
-                        post.getComments() != null ? post.getComments().stream().map(comment -> CommentDto.builder()
-                                .id(comment.getId())
-                                .content(comment.getContent())
-                                .postId(comment.getPost().getId())
-                                .userId(comment.getUser().getId())
-                                .createdAt(comment.getCreatedAt())
-                                .updatedAt(comment.getUpdatedAt())
-                                .build())
-                        .collect(Collectors.toList()) : null
-                )
-                .build();
+    private void replaceTags(Post post, Set<String> tagNames) {
+        Set<String> current = post.getTags().stream().map(Tag::getName).collect(Collectors.toSet());
+        if (current.equals(tagNames)) {
+            return;
+        }
+        Set<String> removed = new HashSet<>(current);
+        removed.removeAll(tagNames);
+        Set<String> added = new HashSet<>(tagNames);
+        added.removeAll(current);
+
+        post.getTags().clear();
+        post.getTags().addAll(resolveTags(tagNames));
+        eventPublisher.publishEvent(new PostTagsChangedEvent(post.getId(), removed, added));
+    }
+
+    // Loads the existing tags in one query, creates the rest and reads them back
+    private Set<Tag> resolveTags(Set<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Tag> tags = tagRepository.findByNameIn(tagNames);
+        if (tags.size() < tagNames.size()) {
+            Set<String> missing = new HashSet<>(tagNames);
+            tags.forEach(tag -> missing.remove(tag.getName()));
+            // A tag another post created meanwhile is matched rather than inserted twice; the re-read picks up both
+            missing.forEach(tagRepository::insertIfAbsent);
+            tags = tagRepository.findByNameIn(tagNames);
+        }
+        return new HashSet<>(tags);
+    }
+
+    private static Set<String> normalizeTags(Set<String> tags) {
+        if (tags == null) {
+            return Set.of();
+        }
+        return tags.stream()
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
     }
 
     private Post mapToEntity(PostDto postDto) {
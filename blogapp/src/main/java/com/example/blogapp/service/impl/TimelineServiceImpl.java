@@ -0,0 +1,145 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.entity.Follow;
+import com.example.blogapp.event.FollowsChangedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.repository.FollowRepository;
+import com.example.blogapp.repository.PostRepository;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.TimelineService;
+import com.example.blogapp.timeline.TimelineStore;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@Observed
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final TimelineStore timelineStore;
+    private final TimelineProperties timelineProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Users cannot follow themselves");
+        }
+        requireUser(followerId);
+        requireUser(followeeId);
+        followRepository.save(Follow.builder().followerId(followerId).followeeId(followeeId).build());
+        // Rebuilt on next read so the new author's earlier posts show up
+        eventPublisher.publishEvent(new FollowsChangedEvent(followerId));
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        followRepository.deleteById(new Follow.Key(followerId, followeeId));
+        eventPublisher.publishEvent(new FollowsChangedEvent(followerId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDto> getTimeline(Long userId, String cursor, int size) {
+        requireUser(userId);
+        int pageSize = CursorPage.clampSize(size);
+        long beforeId = parseCursor(cursor);
+
+        long generation = timelineStore.generation(userId);
+        List<Long> followees = followRepository.findFolloweeIds(userId);
+        if (followees.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        Set<Long> celebrities = new HashSet<>(
+                followRepository.findFolloweesWithMoreFollowersThan(followees, timelineProperties.getCelebrityThreshold()));
+
+        long[] materialized = timelineStore.get(userId);
+        if (materialized == null) {
+            materialized = rebuild(userId, followees, celebrities, generation);
+        }
+
+        // A set, as an author who crossed the celebrity threshold can have posts both in the ring and read here
+        TreeSet<Long> candidates = new TreeSet<>(Comparator.reverseOrder());
+        for (long id : materialized) {
+            if (candidates.size() > pageSize) {
+                break;
+            }
+            if (id < beforeId) {
+                candidates.add(id);
+            }
+        }
+        // The ring reaches back capacity posts at most; a page past its oldest reads the pushed authors directly
+        if (candidates.size() <= pageSize && materialized.length >= timelineStore.capacity()) {
+            long oldest = materialized[materialized.length - 1];
+            List<Long> pushed = pushedAuthors(followees, celebrities);
+            if (!pushed.isEmpty()) {
+                candidates.addAll(postRepository.findIdsByUserIdInBefore(pushed, Math.min(beforeId, oldest),
+                        Limit.of(pageSize + 1)));
+            }
+        }
+        // Fan-out-on-read for authors too big to push to every follower
+        if (!celebrities.isEmpty()) {
+            candidates.addAll(postRepository.findIdsByUserIdInBefore(celebrities, beforeId, Limit.of(pageSize + 1)));
+        }
+        if (candidates.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        List<Long> ids = candidates.stream().limit(pageSize + 1).toList();
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        // Deleted posts simply drop out here; the cursor still moves past them
+        List<PostSummaryDto> items = postRepository.findSummariesByIdIn(pageIds);
+        return new CursorPage<>(items, hasNext ? String.valueOf(pageIds.get(pageSize - 1)) : null);
+    }
+
+    private long[] rebuild(Long userId, List<Long> followees, Set<Long> celebrities, long generation) {
+        List<Long> pushed = pushedAuthors(followees, celebrities);
+        long[] ids = pushed.isEmpty() ? new long[0] : postRepository
+                .findIdsByUserIdInBefore(pushed, Long.MAX_VALUE, Limit.of(timelineStore.capacity()))
+                .stream().mapToLong(Long::longValue).toArray();
+        timelineStore.put(userId, ids, generation);
+        return ids;
+    }
+
+    private static List<Long> pushedAuthors(List<Long> followees, Set<Long> celebrities) {
+        return followees.stream().filter(id -> !celebrities.contains(id)).toList();
+    }
+
+    private long parseCursor(String cursor) {
+        if (cursor == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private void requireUser(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new ResourceNotFoundException("User", "id", id);
+        }
+    }
+}
@@ -1,80 +1,162 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.DtoMapper;
+import com.example.blogapp.dto.LoginDto;
 import com.example.blogapp.dto.UserDto;
 import com.example.blogapp.entity.User;
+import com.example.blogapp.event.UserCreatedEvent;
+import com.example.blogapp.event.UsernameChangedEvent;
 import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.index.UsernameIndex;
 import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.security.PasswordHasher;
 import com.example.blogapp.service.UserService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final UsernameIndex usernameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final NegativeLookupCache negativeLookupCache;
+    private final TransactionOperations transactionOperations;
 
+    // Not transactional: the password is hashed first, and only the writes run in a transaction
     @Override
     public UserDto createUser(UserDto userDto) {
-        User user = mapToEntity(userDto);
-        User savedUser = userRepository.save(user);
-        return mapToDto(savedUser);
+        String hashedPassword = passwordHasher.hash(userDto.getPassword());
+        return saveUser(status -> {
+            if (userRepository.existsByUsername(userDto.getUsername())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Username is already taken");
+            }
+            User savedUser = userRepository.save(mapToEntity(userDto, hashedPassword));
+            eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId()));
+            eventPublisher.publishEvent(new UsernameChangedEvent(null, savedUser.getUsername()));
+            return DtoMapper.toDto(savedUser);
+        });
     }
 
     @Override
     public UserDto getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
-        return mapToDto(user);
+        return negativeLookupCache.lookup(NegativeLookupCache.USER, id, () -> singleFlight.load("user", id, () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+            return DtoMapper.toDto(user);
+        }, DtoMapper::copy));
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public UserDto getUserByUsername(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return DtoMapper.toDto(user);
     }
 
+    // Only for the availability check on the signup form: most names typed there are free, and the
+    // filter answers those without a query. Writes always ask the database.
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isUsernameAvailable(String username) {
+        return !usernameIndex.mightBeTaken(username) || !userRepository.existsByUsername(username);
+    }
+
+    // One chunk of the full listing; the password hash is never selected
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersAfter(long afterId, int limit) {
+        return userRepository.findChunkAfter(afterId, Limit.of(CursorPage.clampSize(limit)));
+    }
+
+    // Not transactional, like createUser
     @Override
     public UserDto updateUser(Long id, UserDto userDto) {
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String hashedPassword = passwordHasher.hash(userDto.getPassword());
+        return saveUser(status -> {
+            User existingUser = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
-        existingUser.setUsername(userDto.getUsername());
-        existingUser.setFullName(userDto.getFullName());
-        existingUser.setPassword(userDto.getPassword());
+            String previousUsername = existingUser.getUsername();
+            if (!previousUsername.equals(userDto.getUsername()) && userRepository.existsByUsername(userDto.getUsername())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Username is already taken");
+            }
+            existingUser.setUsername(userDto.getUsername());
+            existingUser.setFullName(userDto.getFullName());
+            existingUser.setPassword(hashedPassword);
 
-        User updatedUser = userRepository.save(existingUser);
-        return mapToDto(updatedUser);
+            User updatedUser = userRepository.save(existingUser);
+            eventPublisher.publishEvent(new UsernameChangedEvent(previousUsername, updatedUser.getUsername()));
+            return DtoMapper.toDto(updatedUser);
+        });
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User", "id", id);
         }
+        userRepository.findUsernameById(id)
+                .ifPresent(username -> eventPublisher.publishEvent(new UsernameChangedEvent(username, null)));
         userRepository.deleteById(id);
     }
 
-    // Mapping methods
-    private UserDto mapToDto(User user) {
-        return UserDto.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .fullName(user.getFullName())
-                .password(user.getPassword())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .build();
+    // Not transactional: the hash comparison must not run while a connection is held. The lookup's connection goes
+    // back to the pool when its repository transaction ends, which relies on spring.jpa.open-in-view=false
+    @Override
+    public UserDto login(LoginDto loginDto) {
+        User user = userRepository.findByUsername(loginDto.getUsername()).orElse(null);
+        // An unknown username still pays for a comparison, so the response time doesn't reveal which names exist
+        boolean matches = user != null
+                ? passwordHasher.matches(loginDto.getPassword(), user.getPassword())
+                : passwordHasher.matchesDummy(loginDto.getPassword());
+        if (!matches) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+        }
+
+        // Transparently move old hashes to the current cost while we still have the raw password
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(loginDto.getPassword()));
+            userRepository.save(user);
+        }
+        return DtoMapper.toDto(user);
     }
 
-    private User mapToEntity(UserDto userDto) {
+    // The unique index has the final say when two requests claim the same name past the existence check
+    private UserDto saveUser(TransactionCallback<UserDto> work) {
+        try {
+            return transactionOperations.execute(work);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Username is already taken", e);
+        }
+    }
+
+    // Mapping methods
+    private User mapToEntity(UserDto userDto, String hashedPassword) {
         return User.builder()
                 .username(userDto.getUsername())
                 .fullName(userDto.getFullName())
-                .password(userDto.getPassword())
+                .password(hashedPassword)
                 .build();
     }
 }
@@ -0,0 +1,8 @@
+package com.example.blogapp.sqltrace;
+
+/**
+ * Totals for one statement shape since startup, and where its slowest execution came from.
+ */
+public record QueryShapeStats(String sql, long count, double totalMillis, double meanMillis, double maxMillis,
+                              String slowestOrigin) {
+}
@@ -0,0 +1,68 @@
+package com.example.blogapp.sqltrace;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports each statement as a {@code blogapp.jdbc.query} observation. Started on the calling
+ * thread, it becomes a child span of the repository call that issued the statement. Its metric is
+ * tagged by operation only; the SQL text goes on the span.
+ */
+public class SqlObservationListener implements QueryExecutionListener {
+
+    private static final String OBSERVATION = SqlObservationListener.class.getName() + ".observation";
+
+    private final ObservationRegistry observationRegistry;
+
+    public SqlObservationListener(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        // No-op outside sampled traces (TracingConfig), before any of the SQL is looked at
+        Observation observation = Observation.createNotStarted("blogapp.jdbc.query", observationRegistry);
+        if (observation.isNoop()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        String operation = operation(sql);
+        // The statement is a span attribute only; as a metric tag it would make a timer per distinct SQL
+        observation.contextualName(operation)
+                .lowCardinalityKeyValue("db.operation", operation)
+                .highCardinalityKeyValue("db.statement", sql)
+                .start();
+        execInfo.addCustomValue(OBSERVATION, observation);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Observation observation = execInfo.getCustomValue(OBSERVATION, Observation.class);
+        if (observation == null) {
+            return;
+        }
+        if (execInfo.getThrowable() != null) {
+            observation.error(execInfo.getThrowable());
+        }
+        observation.stop();
+    }
+
+    // The statement's first keyword, which keeps the metric's tag values to a handful
+    static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "other" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.blogapp.sqltrace;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * The application methods the current thread is inside of, outermost first, as recorded by
+ * {@link SqlOriginAspect}. Rendered only when a statement is reported, never per call.
+ */
+public final class SqlOrigin {
+
+    private static final ThreadLocal<ArrayDeque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlOrigin() {
+    }
+
+    static void enter(Class<?> type, String method) {
+        FRAMES.get().addLast(new Frame(type, method));
+    }
+
+    static void exit() {
+        FRAMES.get().pollLast();
+    }
+
+    // e.g. "PostController.getAllPosts > PostServiceImpl.getPostsAfter", or "-" outside any tracked method
+    public static String current() {
+        ArrayDeque<Frame> frames = FRAMES.get();
+        if (frames.isEmpty()) {
+            return "-";
+        }
+        StringBuilder origin = new StringBuilder();
+        for (Iterator<Frame> it = frames.iterator(); it.hasNext(); ) {
+            Frame frame = it.next();
+            origin.append(frame.type().getSimpleName()).append('.').append(frame.method());
+            if (it.hasNext()) {
+                origin.append(" > ");
+            }
+        }
+        return origin.toString();
+    }
+
+    private record Frame(Class<?> type, String method) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.blogapp.sqltrace;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+
+/**
+ * Tracks the controller, service and scheduled methods each statement is issued from.
+ */
+@Aspect
+public class SqlOriginAspect {
+
+    @Around("within(com.example.blogapp.controller..*)"
+            + " || within(com.example.blogapp.service.impl..*)"
+            + " || @annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        SqlOrigin.enter(AopUtils.getTargetClass(joinPoint.getTarget()), joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SqlOrigin.exit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.blogapp.sqltrace;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqlqueries}: the slowest and the most frequent statement shapes since startup.
+ * Read-only, and served on the management port only.
+ */
+@Endpoint(id = "sqlqueries")
+public class SqlQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SqlTracer sqlTracer;
+
+    public SqlQueriesEndpoint(SqlTracer sqlTracer) {
+        this.sqlTracer = sqlTracer;
+    }
+
+    @ReadOperation
+    public SqlQueryReport report(@Nullable Integer limit) {
+        int top = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        return new SqlQueryReport(sqlTracer.slowest(top), sqlTracer.mostFrequent(top), sqlTracer.untrackedCount());
+    }
+
+    // untrackedStatements ran after the shape limit was reached and only appear in this count
+    public record SqlQueryReport(List<QueryShapeStats> slowest, List<QueryShapeStats> mostFrequent,
+                                 long untrackedStatements) {
+    }
+}
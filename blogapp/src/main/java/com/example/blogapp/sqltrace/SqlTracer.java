@@ -0,0 +1,202 @@
+package com.example.blogapp.sqltrace;
+
+import com.example.blogapp.config.SqlTracingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every statement going through the proxied data source. Statements are grouped by shape,
+ * their SQL with IN lists of any length folded into one, and counted since startup; slow ones are
+ * logged with where they came from and their bind parameters. Text and binary parameters are logged
+ * by length only: they hold usernames, post contents and password hashes.
+ *
+ * The common path is a map lookup by the SQL string Hibernate already holds and two adders, so
+ * tracing can stay on in production.
+ */
+@Slf4j
+public class SqlTracer implements QueryExecutionListener {
+
+    private static final String START_NANOS = SqlTracer.class.getName() + ".startNanos";
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final Map<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private final Counter slowStatements;
+
+    public SqlTracer(SqlTracingProperties properties, MeterRegistry meterRegistry) {
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.maxShapes = properties.getMaxShapes();
+        this.slowStatements = Counter.builder("blogapp.sql.slow")
+                .description("Statements that ran longer than the slow query threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        boolean slow = nanos >= slowThresholdNanos;
+        String origin = slow ? SqlOrigin.current() : null;
+        // A batch of different statements runs as one call; its time is split evenly between them
+        long nanosPerStatement = nanos / queryInfoList.size();
+        for (QueryInfo queryInfo : queryInfoList) {
+            Shape shape = shapeOf(queryInfo.getQuery());
+            if (shape == null) {
+                untracked.increment();
+            } else {
+                shape.record(nanosPerStatement, origin);
+            }
+        }
+        if (slow) {
+            slowStatements.increment();
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow SQL ({} ms) from {}: {} {}", TimeUnit.NANOSECONDS.toMillis(nanos), origin,
+                        queryInfo.getQuery(), describeParameters(queryInfo));
+            }
+        }
+    }
+
+    public List<QueryShapeStats> slowest(int limit) {
+        return top(Comparator.comparingDouble(QueryShapeStats::maxMillis), limit);
+    }
+
+    public List<QueryShapeStats> mostFrequent(int limit) {
+        return top(Comparator.comparingLong(QueryShapeStats::count), limit);
+    }
+
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    private List<QueryShapeStats> top(Comparator<QueryShapeStats> order, int limit) {
+        return shapes.values().stream()
+                .map(Shape::snapshot)
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private Shape shapeOf(String sql) {
+        Shape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                return null;
+            }
+            shape = shapes.computeIfAbsent(normalized, Shape::new);
+        }
+        // Several SQL strings map to one shape only through IN lists of different lengths, so this stays bounded too
+        if (shapesBySql.size() < maxShapes * 4) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(collapsed).replaceAll("?, ...");
+    }
+
+    private String describeParameters(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> batches = queryInfo.getParametersList();
+        if (batches.isEmpty() || batches.get(0).isEmpty()) {
+            return "";
+        }
+        Object[] values = new Object[batches.get(0).size()];
+        for (ParameterSetOperation operation : batches.get(0)) {
+            Object[] args = operation.getArgs();
+            if (args.length > 1 && args[0] instanceof Integer index && index >= 1 && index <= values.length) {
+                values[index - 1] = ParameterSetOperation.isSetNullParameterOperation(operation) ? null : mask(args[1]);
+            }
+        }
+        StringBuilder description = new StringBuilder("params=").append(Arrays.toString(values));
+        if (batches.size() > 1) {
+            description.append(" (first of ").append(batches.size()).append(" in batch)");
+        }
+        return description.toString();
+    }
+
+    // Ids, counts and timestamps are kept, as they are what reproducing a slow statement needs
+    static Object mask(Object value) {
+        if (value instanceof CharSequence text) {
+            return "<" + text.length() + " chars>";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Date || value instanceof Temporal) {
+            return value;
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private static final class Shape {
+
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile String slowestOrigin;
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long nanos, String origin) {
+            count.increment();
+            totalNanos.add(nanos);
+            long max = maxNanos.get();
+            while (nanos > max) {
+                if (maxNanos.compareAndSet(max, nanos)) {
+                    slowestOrigin = origin != null ? origin : SqlOrigin.current();
+                    return;
+                }
+                max = maxNanos.get();
+            }
+        }
+
+        private QueryShapeStats snapshot() {
+            long statements = count.sum();
+            double totalMillis = toMillis(totalNanos.sum());
+            return new QueryShapeStats(sql, statements, totalMillis, statements == 0 ? 0 : totalMillis / statements,
+                    toMillis(maxNanos.get()), slowestOrigin);
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
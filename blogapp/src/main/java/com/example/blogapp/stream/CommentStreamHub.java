@@ -0,0 +1,199 @@
+package com.example.blogapp.stream;
+
+import com.example.blogapp.config.CommentStreamProperties;
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process pub/sub pushing new comments to Server-Sent Events subscribers of a post.
+ *
+ * Streams are async requests, so an idle subscriber holds a socket but no thread. Publishing
+ * only enqueues into each subscriber's bounded buffer; a small sender pool does the writes,
+ * so one slow client never delays the others. A subscriber whose buffer is full is
+ * disconnected rather than allowed to grow memory without bound.
+ */
+@Component
+@EnableConfigurationProperties(CommentStreamProperties.class)
+public class CommentStreamHub {
+
+    private final PostRepository postRepository;
+    private final CommentStreamProperties properties;
+    private final Executor sender;
+    private final Counter dropped;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByPost = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public CommentStreamHub(PostRepository postRepository, CommentStreamProperties properties, MeterRegistry meterRegistry) {
+        this(postRepository, properties, meterRegistry, newSenderPool(properties.getSenderThreads()));
+    }
+
+    CommentStreamHub(PostRepository postRepository, CommentStreamProperties properties,
+                     MeterRegistry meterRegistry, Executor sender) {
+        this.postRepository = postRepository;
+        this.properties = properties;
+        this.sender = sender;
+        this.dropped = Counter.builder("blogapp.comments.stream.dropped")
+                .description("Comment stream subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("blogapp.comments.stream.subscribers", subscriberCount);
+    }
+
+    public SseEmitter subscribe(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open comment streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        try {
+            // Sent before registering so it comes first; it flushes the headers instead of leaving the client waiting
+            emitter.send(SseEmitter.event().reconnectTime(properties.getReconnectDelay().toMillis()).comment("connected"));
+        } catch (IOException e) {
+            subscriberCount.decrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+        Subscriber subscriber = new Subscriber(postId, emitter, properties.getBufferSize());
+        // compute keeps registration atomic with the empty-set cleanup in unsubscribe
+        subscribersByPost.compute(postId, (id, subscribers) -> {
+            Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        CommentDto comment = event.comment();
+        Set<Subscriber> subscribers = subscribersByPost.get(comment.getPostId());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().id(String.valueOf(comment.getId())).name("comment").data(comment));
+        }
+    }
+
+    // Proxies and load balancers close connections that stay silent; a failed write also finds dead clients
+    @Scheduled(fixedDelayString = "${blogapp.comments.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        subscribersByPost.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keep-alive"))));
+    }
+
+    // Runs before graceful shutdown starts waiting for in-flight requests, which open streams would otherwise stall
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        subscribersByPost.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribersByPost.computeIfPresent(subscriber.postId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static ExecutorService newSenderPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "comment-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final Long postId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long postId, SseEmitter emitter, int bufferSize) {
+            this.postId = postId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                dropped.increment();
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            // At most one drain task per subscriber, so events stay in order
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = buffer.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(this);
+                        buffer.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An offer may have enqueued after the last poll but seen draining still set
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.blogapp.timeline;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.repository.FollowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes every new post into its author's followers' timelines after the post commits,
+ * off the request thread. Authors above the celebrity threshold are left to fan-out-on-read.
+ */
+@Slf4j
+@Component
+public class TimelineFanout {
+
+    private final FollowRepository followRepository;
+    private final TimelineStore timelineStore;
+    private final long celebrityThreshold;
+    private final ThreadPoolExecutor executor;
+
+    public TimelineFanout(FollowRepository followRepository, TimelineStore timelineStore, TimelineProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.followRepository = followRepository;
+        this.timelineStore = timelineStore;
+        this.celebrityThreshold = properties.getCelebrityThreshold();
+        Counter callerRuns = Counter.builder("blogapp.timeline.fanout.caller.runs")
+                .description("Fan-outs run on the committing thread because the fan-out queue was full")
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getFanoutThreads(), properties.getFanoutThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getFanoutQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "timeline-fanout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A burst slows down the writers instead of growing the queue; a dropped push would leave rings stale
+                (runnable, executor) -> {
+                    callerRuns.increment();
+                    if (!executor.isShutdown()) {
+                        runnable.run();
+                    }
+                });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        executor.execute(() -> fanOut(event));
+    }
+
+    void fanOut(PostCreatedEvent event) {
+        try {
+            if (followRepository.countByFolloweeId(event.authorId()) > celebrityThreshold) {
+                return;
+            }
+            for (Long followerId : followRepository.findFollowerIds(event.authorId())) {
+                timelineStore.pushIfPresent(followerId, event.postId());
+            }
+        } catch (RuntimeException e) {
+            // A missed push only makes a timeline stale until it is rebuilt
+            log.warn("Timeline fan-out failed for post {}", event.postId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
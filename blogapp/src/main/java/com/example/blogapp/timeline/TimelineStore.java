@@ -0,0 +1,134 @@
+package com.example.blogapp.timeline;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.event.FollowsChangedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user ring of the most recent post ids from followed authors, held as primitive longs
+ * (8 bytes per entry, no boxing). Only users who read their timeline get a ring.
+ *
+ * A rebuild reads the user's generation before it queries and its ring is dropped if the
+ * generation moved in the meantime, so a follow change or a post pushed during the queries
+ * is never overwritten by the older result.
+ */
+@Component
+@EnableConfigurationProperties(TimelineProperties.class)
+public class TimelineStore {
+
+    // Users share stripes, so a change for one user occasionally discards another user's rebuild
+    private static final int GENERATION_STRIPES = 256;
+
+    private final ConcurrentHashMap<Long, Ring> rings = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int capacity;
+    private final int maxUsers;
+
+    public TimelineStore(TimelineProperties properties) {
+        this.capacity = properties.getCapacity();
+        this.maxUsers = properties.getMaxUsers();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the user's post ids, newest first, or null if the timeline is not materialized
+     */
+    public long[] get(Long userId) {
+        Ring ring = rings.get(userId);
+        return ring == null ? null : ring.snapshot();
+    }
+
+    // Read before the queries that feed put
+    public long generation(Long userId) {
+        return generations.get(stripe(userId));
+    }
+
+    public void put(Long userId, long[] postIdsNewestFirst, long generation) {
+        if (rings.size() >= maxUsers && !rings.containsKey(userId)) {
+            evictOne();
+        }
+        Ring ring = new Ring(capacity);
+        for (int i = Math.min(postIdsNewestFirst.length, capacity) - 1; i >= 0; i--) {
+            ring.push(postIdsNewestFirst[i]);
+        }
+        rings.put(userId, ring);
+        if (generations.get(stripe(userId)) != generation) {
+            rings.remove(userId, ring);
+        }
+    }
+
+    // Users without a ring are skipped; their next read rebuilds it including this post
+    public void pushIfPresent(Long userId, long postId) {
+        generations.incrementAndGet(stripe(userId));
+        Ring ring = rings.get(userId);
+        if (ring != null) {
+            ring.push(postId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        rings.remove(userId);
+    }
+
+    // After commit, so the rebuild on the next read sees the new follows
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowsChanged(FollowsChangedEvent event) {
+        invalidate(event.followerId());
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    private void evictOne() {
+        Iterator<Long> users = rings.keySet().iterator();
+        if (users.hasNext()) {
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static final class Ring {
+
+        private final long[] ids;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        synchronized void push(long id) {
+            ids[next] = id;
+            next = (next + 1) % ids.length;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        // Fan-out is asynchronous and may push slightly out of order, so sort on the way out
+        synchronized long[] snapshot() {
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = ids[Math.floorMod(next - 1 - i, ids.length)];
+            }
+            Arrays.sort(copy);
+            for (int i = 0, j = copy.length - 1; i < j; i++, j--) {
+                long tmp = copy[i];
+                copy[i] = copy[j];
+                copy[j] = tmp;
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.blogapp.trending;
+
+import com.example.blogapp.config.TrendingProperties;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.repository.CommentRepository;
+import com.example.blogapp.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Time-decayed activity score per post, fed by post and comment create events.
+ *
+ * Uses forward decay: an event at time t adds weight * 2^((t - anchor) / halfLife), so existing
+ * scores never need rewriting and recording is a single lock-free add. Comparing two scores at
+ * any moment gives the same order as decaying both to that moment. A scheduled job picks the
+ * top K with a bounded heap and publishes an immutable list that reads return as-is.
+ */
+@Component
+@EnableConfigurationProperties(TrendingProperties.class)
+public class TrendingRanker {
+
+    // Re-anchor well before 2^exponent gets anywhere near double overflow
+    private static final double MAX_EXPONENT = 500;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final TrendingProperties properties;
+    private final Clock clock;
+    private final double halfLifeMillis;
+
+    private final ConcurrentHashMap<Long, Score> scores = new ConcurrentHashMap<>();
+    private volatile long anchorMillis;
+    private volatile List<PostSummaryDto> snapshot = List.of();
+
+    @Autowired
+    public TrendingRanker(PostRepository postRepository, CommentRepository commentRepository, TrendingProperties properties) {
+        this(postRepository, commentRepository, properties, Clock.systemDefaultZone());
+    }
+
+    TrendingRanker(PostRepository postRepository, CommentRepository commentRepository,
+                   TrendingProperties properties, Clock clock) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.halfLifeMillis = properties.getHalfLife().toMillis();
+        this.anchorMillis = clock.millis();
+    }
+
+    public List<PostSummaryDto> getTrending(int limit) {
+        List<PostSummaryDto> current = snapshot;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        record(event.postId(), properties.getPostWeight(), clock.millis());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        record(event.comment().getPostId(), properties.getCommentWeight(), clock.millis());
+    }
+
+    // Replays the window's activity so a restart does not empty the ranking
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now(clock).minus(properties.getWindow());
+        postRepository.findCreatedSince(since)
+                .forEach(row -> record((Long) row[0], properties.getPostWeight(), toMillis((LocalDateTime) row[1])));
+        commentRepository.findPostActivitySince(since)
+                .forEach(row -> record((Long) row[0], properties.getCommentWeight(), toMillis((LocalDateTime) row[1])));
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${blogapp.trending.refresh-interval-ms:30000}")
+    public void refresh() {
+        long now = clock.millis();
+        long cutoff = now - properties.getWindow().toMillis();
+        scores.values().removeIf(score -> score.lastActivityMillis < cutoff);
+        if ((now - anchorMillis) / halfLifeMillis > MAX_EXPONENT / 2) {
+            reanchor(now);
+        }
+
+        int k = properties.getTopK();
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(k + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Score> entry : scores.entrySet()) {
+            heap.offer(Map.entry(entry.getKey(), entry.getValue().value.sum()));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        if (ranked.isEmpty()) {
+            snapshot = List.of();
+            return;
+        }
+
+        Map<Long, PostSummaryDto> summaries = postRepository.findSummariesByIdIn(ranked).stream()
+                .collect(Collectors.toMap(PostSummaryDto::getId, summary -> summary));
+        // Ids that no longer resolve were deleted
+        Set<Long> deleted = ranked.stream().filter(id -> !summaries.containsKey(id)).collect(Collectors.toSet());
+        deleted.forEach(scores::remove);
+
+        List<PostSummaryDto> top = new ArrayList<>(summaries.size());
+        for (int i = ranked.size() - 1; i >= 0; i--) {
+            PostSummaryDto summary = summaries.get(ranked.get(i));
+            if (summary != null) {
+                top.add(summary);
+            }
+        }
+        snapshot = List.copyOf(top);
+    }
+
+    void record(Long postId, double weight, long atMillis) {
+        double exponent = (atMillis - anchorMillis) / halfLifeMillis;
+        Score score = scores.computeIfAbsent(postId, id -> new Score());
+        score.value.add(weight * Math.pow(2, exponent));
+        if (atMillis > score.lastActivityMillis) {
+            score.lastActivityMillis = atMillis;
+        }
+    }
+
+    // Scales every score down to a new anchor; increments racing with this can be lost, which only nudges a score
+    private synchronized void reanchor(long now) {
+        double factor = Math.pow(2, -(now - anchorMillis) / halfLifeMillis);
+        scores.replaceAll((id, old) -> {
+            Score rescaled = new Score();
+            rescaled.value.add(old.value.sum() * factor);
+            rescaled.lastActivityMillis = old.lastActivityMillis;
+            return rescaled;
+        });
+        anchorMillis = now;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Score {
+
+        private final DoubleAdder value = new DoubleAdder();
+        private volatile long lastActivityMillis;
+    }
+}
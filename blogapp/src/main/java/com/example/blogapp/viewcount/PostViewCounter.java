@@ -0,0 +1,87 @@
+package com.example.blogapp.viewcount;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers post views in memory and writes them out as one JDBC batch per interval.
+ *
+ * A hot post is a single LongAdder whose cells spread concurrent increments across CPUs,
+ * so readers never contend on a row lock. The buffer is flushed on shutdown as well, after
+ * graceful shutdown has drained in-flight requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void increment(Long postId) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+
+    long pendingCount(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${blogapp.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        // Sorted by id so concurrent flushers from several instances lock rows in the same order
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                deltas.put(entry.getKey(), views);
+            } else {
+                prune(entry.getKey(), entry.getValue());
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, views) -> batch.add(new Object[]{views, postId}));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            // Put the counts back so the next interval retries them
+            deltas.forEach((postId, views) -> pending.computeIfAbsent(postId, id -> new LongAdder()).add(views));
+            log.warn("Failed to flush view counts for {} posts", deltas.size(), e);
+        }
+        // Cached payloads are left alone: evicting them here would drop exactly the hot posts every
+        // interval, so their viewCount is refreshed when the payload's TTL runs out instead
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Drops a post that saw no views for a whole interval; a view racing the removal is re-added
+    private void prune(Long postId, LongAdder adder) {
+        if (pending.remove(postId, adder)) {
+            long late = adder.sumThenReset();
+            if (late > 0) {
+                pending.computeIfAbsent(postId, id -> new LongAdder()).add(late);
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Keyset pagination of a user's posts and comments, newest first.
+-- These replace the single-column user_id indexes, which are now redundant prefixes.
+CREATE INDEX idx_posts_user_created ON posts (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_comments_user_created ON comments (user_id, created_at DESC, id DESC);
+
+DROP INDEX idx_posts_user_id;
+DROP INDEX idx_comments_user_id;
@@ -0,0 +1,11 @@
+CREATE TABLE follows (
+    follower_id BIGINT NOT NULL,
+    followee_id BIGINT NOT NULL,
+    created_at  TIMESTAMP(6),
+    CONSTRAINT pk_follows PRIMARY KEY (follower_id, followee_id),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_follows_followee FOREIGN KEY (followee_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Fan-out looks up everyone following a post's author
+CREATE INDEX idx_follows_followee ON follows (followee_id, follower_id);
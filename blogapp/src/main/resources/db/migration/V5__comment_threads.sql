@@ -0,0 +1,18 @@
+-- Reply threads stored as a materialized path.
+-- path is the chain of ids from the thread root down to the comment, each zero-padded to 19 digits
+-- and followed by '/', so ordering by path lists a thread depth-first and a subtree is a path prefix.
+ALTER TABLE comments ADD COLUMN parent_id BIGINT;
+ALTER TABLE comments ADD COLUMN root_id BIGINT;
+ALTER TABLE comments ADD COLUMN path VARCHAR(1000);
+
+UPDATE comments SET root_id = id, path = LPAD(CAST(id AS VARCHAR(19)), 19, '0') || '/';
+
+ALTER TABLE comments ALTER COLUMN root_id SET NOT NULL;
+ALTER TABLE comments ALTER COLUMN path SET NOT NULL;
+ALTER TABLE comments ADD CONSTRAINT fk_comments_parent
+    FOREIGN KEY (parent_id) REFERENCES comments (id) ON DELETE CASCADE;
+
+-- Top-level threads of a post, then each thread's replies in path order
+CREATE INDEX idx_comments_post_parent ON comments (post_id, parent_id, id);
+CREATE INDEX idx_comments_root_path ON comments (root_id, path);
+CREATE INDEX idx_comments_parent ON comments (parent_id);
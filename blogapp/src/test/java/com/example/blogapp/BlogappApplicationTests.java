@@ -1,9 +1,9 @@
 package com.example.blogapp;
 
+import com.example.blogapp.support.IntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@IntegrationTest
 class BlogappApplicationTests {
 
 	@Test
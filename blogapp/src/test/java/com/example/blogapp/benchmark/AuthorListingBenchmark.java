@@ -0,0 +1,124 @@
+package com.example.blogapp.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * One author with 100k posts and 100k comments on the migrated schema. Compares a page deep in the
+ * listing fetched by keyset (what GET /api/users/{id}/posts|comments run) against OFFSET paging,
+ * and against loading all of the author's posts, which is what filtering the full post listing amounts to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class AuthorListingBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE = 20;
+    private static final int DEPTH = 90_000;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private Timestamp postCursorCreatedAt;
+    private long postCursorId;
+    private Timestamp commentCursorCreatedAt;
+    private long commentCursorId;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:author-listing;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.update("INSERT INTO users (username, full_name, password) VALUES ('author', 'Author', 'x')");
+        jdbc.update("INSERT INTO users (username, full_name, password) VALUES ('other', 'Other', 'x')");
+        jdbc.update("INSERT INTO posts (title, content, user_id, created_at) VALUES ('Other', 'x', 2, CURRENT_TIMESTAMP)");
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        jdbc.batchUpdate("INSERT INTO posts (title, content, user_id, created_at) VALUES (?, 'Lorem ipsum', 1, ?)",
+                range(ROWS), PAGE * 50, (ps, i) -> {
+                    ps.setString(1, "Post " + i);
+                    ps.setTimestamp(2, Timestamp.valueOf(start.plusSeconds(i)));
+                });
+        // Top-level comments: each is its own thread root, path is its zero-padded id
+        jdbc.batchUpdate("INSERT INTO comments (id, content, post_id, user_id, created_at, root_id, path) "
+                        + "VALUES (?, 'Nice', 1, 1, ?, ?, ?)",
+                range(ROWS), PAGE * 50, (ps, i) -> {
+                    long id = i + 1L;
+                    ps.setLong(1, id);
+                    ps.setTimestamp(2, Timestamp.valueOf(start.plusSeconds(i)));
+                    ps.setLong(3, id);
+                    ps.setString(4, String.format("%019d/", id));
+                });
+
+        Map<String, Object> post = jdbc.queryForMap("SELECT created_at, id FROM posts WHERE user_id = 1 "
+                + "ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY", DEPTH - 1);
+        postCursorCreatedAt = (Timestamp) post.get("CREATED_AT");
+        postCursorId = (Long) post.get("ID");
+        Map<String, Object> comment = jdbc.queryForMap("SELECT created_at, id FROM comments WHERE user_id = 1 "
+                + "ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY", DEPTH - 1);
+        commentCursorCreatedAt = (Timestamp) comment.get("CREATED_AT");
+        commentCursorId = (Long) comment.get("ID");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> postsKeysetDeepPage() {
+        return jdbc.queryForList("SELECT id, title, created_at FROM posts WHERE user_id = ? "
+                        + "AND created_at <= ? AND (created_at < ? OR id < ?) "
+                        + "ORDER BY created_at DESC, id DESC FETCH FIRST ? ROWS ONLY",
+                1L, postCursorCreatedAt, postCursorCreatedAt, postCursorId, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> postsOffsetDeepPage() {
+        return jdbc.queryForList("SELECT id, title, created_at FROM posts WHERE user_id = ? "
+                + "ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST ? ROWS ONLY", 1L, DEPTH, PAGE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> postsLoadAllForAuthor() {
+        return jdbc.queryForList("SELECT * FROM posts WHERE user_id = ?", 1L);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> commentsKeysetDeepPage() {
+        return jdbc.queryForList("SELECT id, post_id, content, created_at FROM comments WHERE user_id = ? "
+                        + "AND created_at <= ? AND (created_at < ? OR id < ?) "
+                        + "ORDER BY created_at DESC, id DESC FETCH FIRST ? ROWS ONLY",
+                1L, commentCursorCreatedAt, commentCursorCreatedAt, commentCursorId, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> commentsOffsetDeepPage() {
+        return jdbc.queryForList("SELECT id, post_id, content, created_at FROM comments WHERE user_id = ? "
+                + "ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST ? ROWS ONLY", 1L, DEPTH, PAGE);
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthorListingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
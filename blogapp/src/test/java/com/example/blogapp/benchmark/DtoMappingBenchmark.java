@@ -0,0 +1,112 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.DtoMapper;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.Tag;
+import com.example.blogapp.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a list of 1,000 posts (5 comments each, half of them tagged) to response DTOs, the way
+ * GET /api/posts does once the entities are loaded. Compares the old builder and stream mapping
+ * with {@link DtoMapper}. Run with the GC profiler (main() adds it) and compare
+ * gc.alloc.rate.norm, the bytes allocated per mapped list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int POSTS = 1_000;
+    private static final int COMMENTS_PER_POST = 5;
+
+    private List<Post> posts;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User author = User.builder().id(1L).username("author").fullName("Author").createdAt(now).updatedAt(now).build();
+        Set<Tag> tags = Set.of(Tag.builder().id(1L).name("java").build(), Tag.builder().id(2L).name("spring").build());
+        posts = new ArrayList<>(POSTS);
+        for (long p = 1; p <= POSTS; p++) {
+            Post post = Post.builder()
+                    .id(p).title("Post title " + p).content("Lorem ipsum dolor sit amet.").user(author)
+                    .createdAt(now).updatedAt(now).viewCount(p * 1_000)
+                    .tags(p % 2 == 0 ? new HashSet<>(tags) : new HashSet<>())
+                    .build();
+            List<Comment> comments = new ArrayList<>(COMMENTS_PER_POST);
+            for (long c = 1; c <= COMMENTS_PER_POST; c++) {
+                comments.add(Comment.builder()
+                        .id(p * 100 + c).content("Comment " + c).post(post).user(author)
+                        .createdAt(now).updatedAt(now)
+                        .build());
+            }
+            post.setComments(comments);
+            posts.add(post);
+        }
+    }
+
+    @Benchmark
+    public List<PostDto> builders() {
+        return posts.stream().map(DtoMappingBenchmark::builderMapping).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PostDto> constructors() {
+        return DtoMapper.toPostDtos(posts);
+    }
+
+    // PostServiceImpl.mapToDto before DtoMapper replaced it
+    private static PostDto builderMapping(Post post) {
+        return PostDto.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .userId(post.getUser().getId())
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .viewCount(post.getViewCount())
+                .tags(post.getTags() != null
+                        ? post.getTags().stream().map(Tag::getName).collect(Collectors.toCollection(TreeSet::new))
+                        : null)
+                .comments(
+                        post.getComments() != null ? post.getComments().stream().map(comment -> CommentDto.builder()
+                                .id(comment.getId())
+                                .content(comment.getContent())
+                                .postId(comment.getPost().getId())
+                                .userId(comment.getUser().getId())
+                                .parentId(comment.getParentId())
+                                .createdAt(comment.getCreatedAt())
+                                .updatedAt(comment.getUpdatedAt())
+                                .build())
+                        .collect(Collectors.toList()) : null
+                )
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
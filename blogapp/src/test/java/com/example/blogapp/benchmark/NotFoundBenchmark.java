@@ -0,0 +1,105 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.exception.GlobalExceptionHandler;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering one request for a missing id, from the throw down in the service to the
+ * JSON body. The old path captured a stack trace as deep as the request's call stack, formatted
+ * the message eagerly and built Spring Boot's default error map; the new one throws a stackless
+ * exception and maps it to a problem detail. The /error re-dispatch through the filter chain,
+ * which the old path also paid, is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    private static final String PATH = "/api/posts/";
+
+    // Frames between the servlet container and the repository call; a real request has 100+
+    @Param({"20", "120"})
+    private int stackDepth;
+
+    private ObjectMapper objectMapper;
+    private GlobalExceptionHandler handler;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler();
+    }
+
+    @Benchmark
+    public byte[] defaultErrorPath() throws JsonProcessingException {
+        long id = nextId++;
+        try {
+            throwAtDepth(stackDepth, () -> new StackTracedNotFoundException("Post", "id", id));
+            throw new IllegalStateException();
+        } catch (StackTracedNotFoundException e) {
+            // What DefaultErrorAttributes puts in the body, after the container logged the message
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", new Date());
+            body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            body.put("error", HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase());
+            body.put("message", e.getMessage());
+            body.put("path", PATH + id);
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] problemDetail() throws JsonProcessingException {
+        long id = nextId++;
+        try {
+            throwAtDepth(stackDepth, () -> new ResourceNotFoundException("Post", "id", id));
+            throw new IllegalStateException();
+        } catch (ResourceNotFoundException e) {
+            ProblemDetail problem = handler.handleResourceNotFound(e);
+            problem.setInstance(URI.create(PATH + id));
+            return objectMapper.writeValueAsBytes(problem);
+        }
+    }
+
+    private static void throwAtDepth(int depth, ExceptionFactory factory) {
+        if (depth == 0) {
+            throw factory.create();
+        }
+        throwAtDepth(depth - 1, factory);
+    }
+
+    private interface ExceptionFactory {
+        RuntimeException create();
+    }
+
+    // ResourceNotFoundException as it was before it went stackless
+    private static final class StackTracedNotFoundException extends RuntimeException {
+
+        private StackTracedNotFoundException(String resourceName, String fieldName, Object fieldValue) {
+            super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotFoundBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.config.PasswordHashingProperties;
+import com.example.blogapp.security.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signup throughput ceiling per BCrypt strength: 16 request threads share the hashing pool,
+ * so the score is hashes (users created) per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordHasher hasher;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(strength);
+        properties.setQueueCapacity(64);
+        hasher = new PasswordHasher(properties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    public String createUserHash() {
+        return hasher.hash("correct horse battery staple");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordHashingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
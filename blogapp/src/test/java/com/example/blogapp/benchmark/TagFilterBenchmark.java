@@ -0,0 +1,108 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.event.PostTagsChangedEvent;
+import com.example.blogapp.index.TagIndex;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 200k posts where every 2nd is tagged "common", every 10th "medium", and only the oldest 2,000
+ * are tagged "archive". Compares the newest page of posts carrying all requested tags from
+ * TagIndex against the join-and-group query the service falls back to before the index is built,
+ * both when matches are among the newest posts and when they are all far back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagFilterBenchmark {
+
+    private static final int POSTS = 200_000;
+    private static final int PAGE = 20;
+    private static final String SQL = "SELECT p.id FROM posts p JOIN post_tags pt ON pt.post_id = p.id "
+            + "JOIN tags t ON t.id = pt.tag_id WHERE t.name IN (%s) "
+            + "GROUP BY p.id HAVING COUNT(t.id) = ? ORDER BY p.id DESC FETCH FIRST ? ROWS ONLY";
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TagIndex index;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:tag-filter;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        index = new TagIndex(null);
+
+        jdbc.update("INSERT INTO users (username, full_name, password) VALUES ('author', 'Author', 'x')");
+        jdbc.update("INSERT INTO tags (id, name) VALUES (1, 'common'), (2, 'medium'), (3, 'archive')");
+        jdbc.batchUpdate("INSERT INTO posts (id, title, content, user_id) VALUES (?, 'Post', 'Lorem ipsum', 1)",
+                IntStream.rangeClosed(1, POSTS).boxed().toList(), 1_000, (ps, id) -> ps.setLong(1, id));
+
+        List<long[]> assignments = new ArrayList<>();
+        for (long id = 1; id <= POSTS; id++) {
+            Set<String> tags = tagsOf(id);
+            if (tags.contains("common")) assignments.add(new long[]{id, 1});
+            if (tags.contains("medium")) assignments.add(new long[]{id, 2});
+            if (tags.contains("archive")) assignments.add(new long[]{id, 3});
+            index.onPostTagsChanged(new PostTagsChangedEvent(id, Set.of(), tags));
+        }
+        jdbc.batchUpdate("INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)", assignments, 1_000,
+                (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+    }
+
+    private static Set<String> tagsOf(long id) {
+        Set<String> tags = new HashSet<>();
+        if (id % 2 == 0) tags.add("common");
+        if (id % 10 == 0) tags.add("medium");
+        if (id <= 2_000) tags.add("archive");
+        return tags;
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Long> indexTwoTags() {
+        return index.findNewest(Set.of("common", "medium"), PAGE);
+    }
+
+    @Benchmark
+    public List<Long> indexOldMatches() {
+        return index.findNewest(Set.of("common", "archive"), PAGE);
+    }
+
+    @Benchmark
+    public List<Long> sqlTwoTags() {
+        return jdbc.queryForList(String.format(SQL, "'common', 'medium'"), Long.class, 2, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> sqlOldMatches() {
+        return jdbc.queryForList(String.format(SQL, "'common', 'archive'"), Long.class, 2, PAGE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TagFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
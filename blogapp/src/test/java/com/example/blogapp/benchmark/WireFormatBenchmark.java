@@ -0,0 +1,88 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.PostDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and parses a page of 100 posts (5 comments each) as JSON, CBOR and Smile.
+ * Run main() from the IDE; payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<PostDto>> POST_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private List<PostDto> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        page = postPage(100, 5);
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s payload: %d bytes%n", format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<PostDto> deserialize() throws IOException {
+        return mapper.readValue(encoded, POST_LIST);
+    }
+
+    static List<PostDto> postPage(int posts, int commentsPerPost) {
+        // Fixed, so the payload sizes printed in setUp are the same on every run
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+        List<PostDto> page = new ArrayList<>(posts);
+        for (long p = 1; p <= posts; p++) {
+            List<CommentDto> comments = new ArrayList<>(commentsPerPost);
+            for (long c = 1; c <= commentsPerPost; c++) {
+                comments.add(CommentDto.builder()
+                        .id(p * 100 + c).content("Comment " + c + " on post " + p)
+                        .postId(p).userId(c).createdAt(now).updatedAt(now)
+                        .build());
+            }
+            page.add(PostDto.builder()
+                    .id(p).title("Post title " + p).content("Lorem ipsum dolor sit amet. ".repeat(20))
+                    .userId(p % 10).createdAt(now).updatedAt(now).comments(comments)
+                    .build());
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WireFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
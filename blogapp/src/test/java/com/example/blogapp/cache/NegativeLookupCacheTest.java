@@ -0,0 +1,140 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.config.NegativeLookupCacheProperties;
+import com.example.blogapp.datasource.ReadYourWritesTracker;
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NegativeLookupCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private NegativeLookupCacheProperties properties;
+    private NegativeLookupCache cache;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new NegativeLookupCacheProperties();
+        properties.setMaxEntries(2);
+        properties.setTtl(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(NOW);
+        cache = new NegativeLookupCache(properties, meterRegistry, mock(ObjectProvider.class), clock);
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    void lookup_OfRememberedMissingId_ShouldNotQuery() {
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("blogapp.negative.cache.avoided").tag("resource", "Post").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lookup_WithReplicaRouting_ShouldOnlyRememberMissesReadFromThePrimary() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 10);
+        ObjectProvider<ReadYourWritesTracker> trackerProvider = mock(ObjectProvider.class);
+        when(trackerProvider.getIfAvailable()).thenReturn(tracker);
+        cache = new NegativeLookupCache(properties, new SimpleMeterRegistry(), trackerProvider, clock);
+
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+        assertThat(queries).hasValue(2);
+
+        tracker.pinToPrimary();
+        try {
+            assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+        } finally {
+            tracker.unpin();
+        }
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    void lookup_AfterCreateOfRememberedId_ShouldQueryAgain() {
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+
+        cache.onPostCreated(new PostCreatedEvent(7L, 1L));
+
+        assertThat(cache.lookup(NegativeLookupCache.POST, 7L, () -> "post 7")).isEqualTo("post 7");
+    }
+
+    @Test
+    void lookup_WhenCreateCommitsDuringQuery_ShouldNotRememberMiss() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.lookup(NegativeLookupCache.COMMENT, 3L, () -> {
+            cache.onCommentCreated(new CommentCreatedEvent(CommentDto.builder().id(3L).build()));
+            throw new ResourceNotFoundException(NegativeLookupCache.COMMENT, "id", 3L);
+        }));
+
+        assertThat(cache.lookup(NegativeLookupCache.COMMENT, 3L, () -> "comment 3")).isEqualTo("comment 3");
+    }
+
+    @Test
+    void lookup_AfterTtl_ShouldQueryAgain() {
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(7L));
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void lookup_WhenFull_ShouldForgetOldestMiss() {
+        for (long id = 1; id <= 3; id++) {
+            long missing = id;
+            assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(missing));
+        }
+
+        assertThrows(ResourceNotFoundException.class, () -> lookupMissingPost(1L));
+
+        assertThat(queries).hasValue(4);
+    }
+
+    @Test
+    void lookup_WhenLoaderMissesAnotherResource_ShouldNotRememberId() {
+        Supplier<String> missingAuthor = () -> {
+            queries.incrementAndGet();
+            throw new ResourceNotFoundException("User", "id", 9L);
+        };
+        assertThrows(ResourceNotFoundException.class, () -> cache.lookup(NegativeLookupCache.POST, 7L, missingAuthor));
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.lookup(NegativeLookupCache.POST, 7L, missingAuthor));
+
+        assertThat(queries).hasValue(2);
+    }
+
+    private String lookupMissingPost(Long id) {
+        return cache.lookup(NegativeLookupCache.POST, id, () -> {
+            queries.incrementAndGet();
+            throw new ResourceNotFoundException(NegativeLookupCache.POST, "id", id);
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.config.PostPayloadCacheProperties;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.event.PostChangedEvent;
+import com.example.blogapp.support.MutableClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostPayloadCacheTest {
+
+    private PostPayloadCache cache;
+    private MutableClock clock;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        PostPayloadCacheProperties properties = new PostPayloadCacheProperties();
+        properties.setMaxEntries(2);
+        properties.setGzipMinSize(100);
+        properties.setTtl(Duration.ofSeconds(30));
+        clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+        cache = new PostPayloadCache(new ObjectMapper(), properties, clock);
+    }
+
+    private Supplier<PostDto> loader(Long id, String content) {
+        return () -> {
+            loads.incrementAndGet();
+            return PostDto.builder().id(id).title("Title").content(content).userId(1L).build();
+        };
+    }
+
+    @Test
+    void getOrRender_OnRepeatRead_ShouldNotReload() {
+        cache.getOrRender(1L, false, loader(1L, "short"));
+        ResponseEntity<byte[]> response = cache.getOrRender(1L, false, loader(1L, "short"));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(new String(response.getBody())).contains("\"content\":\"short\"");
+    }
+
+    @Test
+    void getOrRender_AfterPostChanged_ShouldReload() {
+        cache.getOrRender(1L, false, loader(1L, "old"));
+        cache.onPostChanged(new PostChangedEvent(1L));
+
+        ResponseEntity<byte[]> response = cache.getOrRender(1L, false, loader(1L, "new"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(new String(response.getBody())).contains("\"content\":\"new\"");
+    }
+
+    @Test
+    void getOrRender_WhenSamePostChangesDuringRender_ShouldNotStorePayload() {
+        cache.getOrRender(1L, false, () -> {
+            cache.evict(1L);
+            return loader(1L, "old").get();
+        });
+
+        cache.getOrRender(1L, false, loader(1L, "new"));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getOrRender_WhenOtherPostChangesDuringRender_ShouldStillStorePayload() {
+        cache.getOrRender(1L, false, () -> {
+            cache.evict(2L);
+            return loader(1L, "a").get();
+        });
+
+        cache.getOrRender(1L, false, loader(1L, "a"));
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrRender_AfterTtl_ShouldReload() {
+        cache.getOrRender(1L, false, loader(1L, "old"));
+
+        clock.advance(Duration.ofSeconds(31));
+        ResponseEntity<byte[]> response = cache.getOrRender(1L, false, loader(1L, "new"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(new String(response.getBody())).contains("\"content\":\"new\"");
+    }
+
+    @Test
+    void getOrRender_WhenOverCapacity_ShouldDropLeastRecentlyRead() {
+        cache.getOrRender(1L, false, loader(1L, "a"));
+        cache.getOrRender(2L, false, loader(2L, "b"));
+        cache.getOrRender(3L, false, loader(3L, "c"));
+
+        cache.getOrRender(1L, false, loader(1L, "a"));
+
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void getOrRender_WithLargePayloadAndGzipAccepted_ShouldServePrecompressedBytes() throws Exception {
+        String content = "x".repeat(500);
+
+        ResponseEntity<byte[]> response = cache.getOrRender(1L, true, loader(1L, content));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertThat(new String(in.readAllBytes())).contains(content);
+        }
+    }
+
+    @Test
+    void getOrRender_WithLargePayloadAndGzipNotAccepted_ShouldServePlainJson() {
+        ResponseEntity<byte[]> response = cache.getOrRender(1L, false, loader(1L, "x".repeat(500)));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(new String(response.getBody())).startsWith("{");
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.blogapp.cache;
+
+import com.example.blogapp.datasource.ReadYourWritesTracker;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+    private static final Duration FOLLOWER_TIMEOUT = Duration.ofSeconds(5);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService callers;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(TransactionOperations.withoutTransaction(),
+                mock(ObjectProvider.class), meterRegistry, FOLLOWER_TIMEOUT);
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void load_WithConcurrentCallersForSameKey_ShouldQueryOnce() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = startCallers(1L, () -> {
+            queries.incrementAndGet();
+            await(release);
+            return "post-1";
+        });
+        awaitFollowers(CALLERS - 1);
+
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("post-1");
+        }
+        assertThat(queries).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+        assertThat(meterRegistry.get("blogapp.singleflight.calls").tag("result", "collapsed").counter().count())
+                .isEqualTo(CALLERS - 1);
+        assertThat(meterRegistry.get("blogapp.singleflight.collapse.ratio").tag("group", "post").gauge().value())
+                .isEqualTo((CALLERS - 1) / (double) CALLERS);
+    }
+
+    @Test
+    void load_WhenLeaderFails_ShouldRethrowToEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = startCallers(1L, () -> {
+            await(release);
+            throw new ResourceNotFoundException("Post", "id", 1L);
+        });
+        awaitFollowers(CALLERS - 1);
+
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(e.getCause()).isInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void load_AfterFlightCompletes_ShouldQueryAgain() {
+        AtomicInteger queries = new AtomicInteger();
+
+        singleFlight.load("post", 1L, queries::incrementAndGet, UnaryOperator.identity());
+        singleFlight.load("post", 1L, queries::incrementAndGet, UnaryOperator.identity());
+        singleFlight.load("user", 1L, queries::incrementAndGet, UnaryOperator.identity());
+
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_WhenPinnedToPrimary_ShouldNotJoinReplicaFlight() throws Exception {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 10);
+        ObjectProvider<ReadYourWritesTracker> trackerProvider = mock(ObjectProvider.class);
+        when(trackerProvider.getIfAvailable()).thenReturn(tracker);
+        singleFlight = new SingleFlight(TransactionOperations.withoutTransaction(), trackerProvider, meterRegistry,
+                FOLLOWER_TIMEOUT);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> replicaRead = callers.submit(() -> singleFlight.load("post", 1L, () -> {
+            await(release);
+            return "replica";
+        }, UnaryOperator.identity()));
+        while (singleFlight.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        tracker.pinToPrimary();
+        try {
+            assertThat(singleFlight.load("post", 1L, () -> "primary", UnaryOperator.identity())).isEqualTo("primary");
+        } finally {
+            tracker.unpin();
+            release.countDown();
+        }
+        assertThat(replicaRead.get(5, TimeUnit.SECONDS)).isEqualTo("replica");
+    }
+
+    @Test
+    void load_ShouldGiveEachFollowerItsOwnCopy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<StringBuilder>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.load("post", 1L, () -> {
+                await(release);
+                return new StringBuilder("post-1");
+            }, StringBuilder::new)));
+        }
+        awaitFollowers(CALLERS - 1);
+
+        release.countDown();
+
+        Set<StringBuilder> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<StringBuilder> result : results) {
+            distinct.add(result.get(5, TimeUnit.SECONDS));
+        }
+        assertThat(distinct).hasSize(CALLERS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_WhenLeaderOutlastsFollowerTimeout_ShouldAnswerFollowerWithServiceUnavailable() throws Exception {
+        singleFlight = new SingleFlight(TransactionOperations.withoutTransaction(), mock(ObjectProvider.class),
+                meterRegistry, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> singleFlight.load("post", 1L, () -> {
+            await(release);
+            return "post-1";
+        }, UnaryOperator.identity()));
+        while (singleFlight.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        try {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> singleFlight.load("post", 1L, () -> "unused", UnaryOperator.identity()));
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        } finally {
+            release.countDown();
+        }
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("post-1");
+    }
+
+    @Test
+    void load_InsideTransaction_ShouldQueryItselfInsteadOfJoining() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> singleFlight.load("post", 1L, () -> {
+            await(release);
+            return "committed";
+        }, UnaryOperator.identity()));
+        while (singleFlight.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(singleFlight.load("post", 1L, () -> "own-write", UnaryOperator.identity())).isEqualTo("own-write");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            release.countDown();
+        }
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("committed");
+        assertThat(collapsedCount()).isZero();
+    }
+
+    private List<Future<String>> startCallers(Long key, Supplier<String> loader) {
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.load("post", key, loader, UnaryOperator.identity())));
+        }
+        return results;
+    }
+
+    // Followers are counted before they block, so this returns once all of them joined the flight
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (collapsedCount() < followers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(collapsedCount()).isEqualTo(followers);
+    }
+
+    private double collapsedCount() {
+        Counter counter = meterRegistry.find("blogapp.singleflight.calls").tag("result", "collapsed").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.blogapp.config;
+
+import com.example.blogapp.service.impl.PostServiceImpl;
+import com.example.blogapp.stream.CommentStreamHub;
+import com.example.blogapp.trending.TrendingRanker;
+import com.example.blogapp.viewcount.PostViewCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyInitializationConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.scheduledBeansStayEager();
+
+    @Test
+    void isExcluded_ForBeansWithScheduledWork_ShouldKeepThemEager() {
+        assertThat(filter.isExcluded("postViewCounter", null, PostViewCounter.class)).isTrue();
+        assertThat(filter.isExcluded("trendingRanker", null, TrendingRanker.class)).isTrue();
+        assertThat(filter.isExcluded("commentStreamHub", null, CommentStreamHub.class)).isTrue();
+    }
+
+    @Test
+    void isExcluded_ForOtherBeans_ShouldAllowLazyCreation() {
+        assertThat(filter.isExcluded("postServiceImpl", null, PostServiceImpl.class)).isFalse();
+        assertThat(filter.isExcluded("unknown", null, null)).isFalse();
+    }
+}
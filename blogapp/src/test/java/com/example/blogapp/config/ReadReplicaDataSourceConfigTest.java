@@ -0,0 +1,44 @@
+package com.example.blogapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ReadReplicaDataSourceConfig.class, BootProperties.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:replica-config-primary",
+                    "blogapp.datasource.read-replicas.enabled=true",
+                    "blogapp.datasource.read-replicas.urls=jdbc:h2:mem:replica-config-replica");
+
+    @Test
+    void primaryDataSource_ShouldBindSpringDatasourceHikariProperties() {
+        contextRunner
+                .withPropertyValues("spring.jpa.open-in-view=false",
+                        "spring.datasource.hikari.maximum-pool-size=3",
+                        "spring.datasource.hikari.connection-timeout=2000")
+                .run(context -> {
+                    HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+                    assertThat(primary.getMaximumPoolSize()).isEqualTo(3);
+                    assertThat(primary.getConnectionTimeout()).isEqualTo(2000);
+                    assertThat(primary.getPoolName()).isEqualTo("primary");
+                });
+    }
+
+    @Test
+    void dataSource_WithOpenInView_ShouldFailToStart() {
+        contextRunner.run(context -> assertThat(context).hasFailed()
+                .getFailure().hasRootCauseMessage("Read replica routing requires spring.jpa.open-in-view=false"));
+    }
+
+    @EnableConfigurationProperties({DataSourceProperties.class, JpaProperties.class})
+    static class BootProperties {
+    }
+}
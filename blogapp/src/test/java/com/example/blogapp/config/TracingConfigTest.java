@@ -0,0 +1,51 @@
+package com.example.blogapp.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class TracingConfigTest {
+
+    private final Tracer tracer = mock(Tracer.class);
+    private final ObservationPredicate predicate = TracingConfig.sampledTracesOnly(() -> tracer);
+    private final Observation.Context context = new Observation.Context();
+
+    @Test
+    void sampledTracesOnly_InsideSampledTrace_ShouldKeepRepositoryAndJdbcObservations() {
+        givenCurrentSpan(true);
+
+        assertThat(predicate.test("blogapp.repository", context)).isTrue();
+        assertThat(predicate.test("blogapp.jdbc.query", context)).isTrue();
+    }
+
+    @Test
+    void sampledTracesOnly_OutsideSampledTrace_ShouldSkipRepositoryAndJdbcObservations() {
+        assertThat(predicate.test("blogapp.jdbc.query", context)).isFalse();
+
+        givenCurrentSpan(false);
+
+        assertThat(predicate.test("blogapp.repository", context)).isFalse();
+        assertThat(predicate.test("blogapp.jdbc.query", context)).isFalse();
+    }
+
+    @Test
+    void sampledTracesOnly_ShouldKeepOtherObservations() {
+        assertThat(predicate.test("http.server.requests", context)).isTrue();
+        assertThat(predicate.test("post-service-impl", context)).isTrue();
+    }
+
+    private void givenCurrentSpan(boolean sampled) {
+        Span span = mock(Span.class);
+        TraceContext traceContext = mock(TraceContext.class);
+        given(tracer.currentSpan()).willReturn(span);
+        given(span.context()).willReturn(traceContext);
+        given(traceContext.sampled()).willReturn(sampled);
+    }
+}
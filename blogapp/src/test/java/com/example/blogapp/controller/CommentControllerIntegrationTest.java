@@ -2,25 +2,23 @@ package com.example.blogapp.controller;
 
 import com.example.blogapp.dto.CommentDto;
 import com.example.blogapp.dto.PostDto;
-import com.example.blogapp.dto.UserDto;
-import org.junit.jupiter.api.AfterEach;
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.TestData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@ActiveProfiles("test")
+@IntegrationTest
 class CommentControllerIntegrationTest {
 
     @Autowired
@@ -31,48 +29,8 @@ class CommentControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        // Create a test user
-        UserDto userDto = UserDto.builder()
-                .username("testuser")
-                .fullName("Test User")
-                .password("password123")
-                .build();
-        ResponseEntity<UserDto> userResponse = restTemplate.postForEntity("/api/users", userDto, UserDto.class);
-        userId = userResponse.getBody().getId();
-
-        // Create a test post
-        PostDto postDto = PostDto.builder()
-                .title("Test Post")
-                .content("Test Content")
-                .userId(userId)
-                .build();
-        ResponseEntity<PostDto> postResponse = restTemplate.postForEntity("/api/posts", postDto, PostDto.class);
-        postId = postResponse.getBody().getId();
-    }
-
-    @AfterEach
-    void cleanUp() {
-        // Delete all comments
-        ResponseEntity<List> commentListResponse = restTemplate.getForEntity("/api/comments", List.class);
-        if (commentListResponse.getBody() != null) {
-            for (Object obj : commentListResponse.getBody()) {
-                // Assuming response is a List of LinkedHashMaps representing JSON objects
-                @SuppressWarnings("unchecked")
-                var map = (java.util.LinkedHashMap<String, Object>) obj;
-                Long commentId = ((Number) map.get("id")).longValue();
-                restTemplate.delete("/api/comments/" + commentId);
-            }
-        }
-
-        // Delete post
-        if (postId != null) {
-            restTemplate.delete("/api/posts/" + postId);
-        }
-
-        // Delete user
-        if (userId != null) {
-            restTemplate.delete("/api/users/" + userId);
-        }
+        userId = TestData.createUser(restTemplate);
+        postId = TestData.createPost(restTemplate, userId);
     }
 
     @Test
@@ -191,6 +149,61 @@ class CommentControllerIntegrationTest {
 
         // Verify the comment is deleted
         ResponseEntity<CommentDto> getResponse = restTemplate.getForEntity("/api/comments/" + commentId, CommentDto.class);
-        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCommentTree_ReturnsRepliesNestedUnderParents() {
+        Long first = createComment("First", null);
+        Long reply = createComment("Reply", first);
+        createComment("Nested reply", reply);
+        Long second = createComment("Second", null);
+
+        ResponseEntity<List> response = restTemplate.getForEntity("/api/posts/" + postId + "/comments/tree", List.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Map<String, Object>> threads = response.getBody();
+        assertThat(threads).extracting(thread -> ((Number) thread.get("id")).longValue()).containsExactly(first, second);
+        List<Map<String, Object>> replies = (List<Map<String, Object>>) threads.get(0).get("replies");
+        assertThat(replies).singleElement().satisfies(node -> {
+            assertThat(node.get("content")).isEqualTo("Reply");
+            assertThat((List<?>) node.get("replies")).hasSize(1);
+        });
+        assertThat((List<?>) threads.get(1).get("replies")).isEmpty();
+    }
+
+    @Test
+    void getCommentTree_WithRepliesLimit_CutsEachThread() {
+        Long first = createComment("First", null);
+        createComment("Reply 1", first);
+        createComment("Reply 2", first);
+
+        ResponseEntity<List> response = restTemplate.getForEntity(
+                "/api/posts/" + postId + "/comments/tree?replies=1", List.class);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> thread = (Map<String, Object>) response.getBody().get(0);
+        assertThat((List<?>) thread.get("replies")).hasSize(1);
+    }
+
+    @Test
+    void deletePost_WithReplyThreads_ReturnsNoContent() {
+        Long first = createComment("First", null);
+        createComment("Reply", first);
+
+        ResponseEntity<Void> response = restTemplate.exchange("/api/posts/" + postId, HttpMethod.DELETE, null, Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    private Long createComment(String content, Long parentId) {
+        CommentDto commentDto = CommentDto.builder()
+                .content(content)
+                .postId(postId)
+                .userId(userId)
+                .parentId(parentId)
+                .build();
+        return restTemplate.postForEntity("/api/comments", commentDto, CommentDto.class).getBody().getId();
     }
-}
\ No newline at end of file
+}
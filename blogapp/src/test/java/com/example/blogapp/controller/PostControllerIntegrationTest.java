@@ -1,27 +1,44 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.cache.PostPayloadCache;
+import com.example.blogapp.dto.CommentDto;
 import com.example.blogapp.dto.PostDto;
-import com.example.blogapp.dto.UserDto;
-import com.example.blogapp.repository.PostRepository;
-import com.example.blogapp.repository.UserRepository;
-import org.junit.jupiter.api.AfterEach;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.TestData;
+import com.example.blogapp.trending.TrendingRanker;
+import com.example.blogapp.viewcount.PostViewCounter;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@ActiveProfiles("test")
+@IntegrationTest
 class PostControllerIntegrationTest {
 
     @Autowired
@@ -30,35 +47,20 @@ class PostControllerIntegrationTest {
     private Long userId;
 
     @Autowired
-    private PostRepository postRepository;
+    private TrendingRanker trendingRanker;
 
     @Autowired
-    private UserRepository userRepository;
+    private PostViewCounter postViewCounter;
 
+    @Autowired
+    private PostPayloadCache postPayloadCache;
+
+    @Autowired
+    private DataSource dataSource;
 
     @BeforeEach
     void setUp() {
-        userId = createTestUser();
-    }
-
-    @AfterEach
-    void tearDown() {
-        // Clean up posts and users after each test
-        postRepository.deleteAll();
-        userRepository.deleteAll();
-    }
-
-    private Long createTestUser() {
-        UserDto userDto = UserDto.builder()
-                .username("testuser")
-                .fullName("Test User")
-                .password("password")
-                .build();
-
-        ResponseEntity<UserDto> response = restTemplate.postForEntity("/api/users", userDto, UserDto.class);
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
-        assertThat(response.getBody()).isNotNull();
-        return response.getBody().getId();
+        userId = TestData.createUser(restTemplate);
     }
 
     @Test
@@ -105,6 +107,101 @@ class PostControllerIntegrationTest {
         assertThat(response.getBody().getId()).isEqualTo(postId);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getPostById_WithMissingId_ReturnsProblemDetail() {
+        ResponseEntity<Map> response = restTemplate.getForEntity("/api/posts/" + Long.MAX_VALUE, Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        assertThat(response.getBody())
+                .containsEntry("status", 404)
+                .containsEntry("detail", "Post not found with id : '" + Long.MAX_VALUE + "'")
+                .containsEntry("instance", "/api/posts/" + Long.MAX_VALUE);
+    }
+
+    @Test
+    void getPostById_AfterFlushAndCacheExpiry_ReturnsViewCount() {
+        Long postId = TestData.createPost(restTemplate, userId);
+        getJson("/api/posts/" + postId);
+        getJson("/api/posts/" + postId);
+        postViewCounter.flush();
+
+        PostDto cached = getJson("/api/posts/" + postId);
+        // Stands in for the payload's TTL running out
+        postPayloadCache.evict(postId);
+        PostDto refreshed = getJson("/api/posts/" + postId);
+
+        assertThat(cached.getViewCount()).isZero();
+        assertThat(refreshed.getViewCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void getPostById_NegotiatesFormatFromAccept() {
+        Long postId = TestData.createPost(restTemplate, userId);
+
+        assertThat(contentTypeFor("/api/posts/" + postId, null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(contentTypeFor("/api/posts/" + postId, "*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(contentTypeFor("/api/posts/" + postId, "application/json, application/cbor;q=0.1"))
+                .isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(contentTypeFor("/api/posts/" + postId, "application/cbor, application/json;q=0.1"))
+                .isEqualTo(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void getPostById_WithUnsupportedAccept_Returns406() {
+        Long postId = TestData.createPost(restTemplate, userId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE);
+
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/posts/" + postId, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_ACCEPTABLE);
+    }
+
+    @Test
+    void getPostById_WithCborAccept_ReturnsCbor() {
+        PostDto postDto = PostDto.builder()
+                .title("Test Post")
+                .content("Test Content")
+                .userId(userId)
+                .build();
+        ResponseEntity<PostDto> createResponse = restTemplate.postForEntity("/api/posts", postDto, PostDto.class);
+        Long postId = createResponse.getBody().getId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/api/posts/" + postId,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(response.getBody()).isNotEmpty();
+    }
+
+    @Test
+    void getAllPosts_WithCborAccept_ReturnsCbor() {
+        TestData.createPost(restTemplate, userId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/api/posts",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(response.getBody()).isNotEmpty();
+    }
+
     @Test
     void updatePost_WithValidData_ReturnsUpdatedPost() {
         PostDto postDto = PostDto.builder()
@@ -154,6 +251,172 @@ class PostControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
 
         ResponseEntity<PostDto> getResponse = restTemplate.getForEntity("/api/posts/" + postId, PostDto.class);
-        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getTrendingPosts_AfterRefresh_IncludesNewPost() {
+        PostDto postDto = PostDto.builder()
+                .title("Trending Post")
+                .content("Test Content")
+                .userId(userId)
+                .build();
+        Long postId = restTemplate.postForEntity("/api/posts", postDto, PostDto.class).getBody().getId();
+        trendingRanker.refresh();
+
+        ResponseEntity<PostSummaryDto[]> response = restTemplate.getForEntity("/api/posts/trending", PostSummaryDto[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(PostSummaryDto::getId).contains(postId);
+    }
+
+    @Test
+    void getAllPosts_WithTags_ReturnsPostsCarryingAllOfThem() {
+        String java = TestData.unique("java");
+        String spring = TestData.unique("spring");
+        Long both = createTaggedPost("Both", Set.of(java, spring));
+        createTaggedPost("Java only", Set.of(java));
+
+        ResponseEntity<PostDto[]> response = restTemplate.getForEntity(
+                "/api/posts?tags=" + java + "," + spring.toUpperCase(), PostDto[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(PostDto::getId).containsExactly(both);
+        assertThat(response.getBody()[0].getTags()).containsExactlyInAnyOrder(java, spring);
+    }
+
+    @Test
+    void updatePost_WithNewTags_MovesPostInTagFilter() {
+        String java = TestData.unique("java");
+        String kotlin = TestData.unique("kotlin");
+        Long postId = createTaggedPost("Retagged", Set.of(java));
+        PostDto updateDto = PostDto.builder()
+                .title("Retagged")
+                .content("Test Content")
+                .userId(userId)
+                .tags(Set.of(kotlin))
+                .build();
+
+        restTemplate.put("/api/posts/" + postId, updateDto);
+
+        assertThat(restTemplate.getForEntity("/api/posts?tags=" + java, PostDto[].class).getBody()).isEmpty();
+        assertThat(restTemplate.getForEntity("/api/posts?tags=" + kotlin, PostDto[].class).getBody())
+                .extracting(PostDto::getId).containsExactly(postId);
+    }
+
+    @Test
+    void createPost_ConcurrentlyWithTheSameNewTag_AllSucceedWithoutExhaustingThePool() throws Exception {
+        String tag = TestData.unique("rush");
+        int posts = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() + 2;
+        ExecutorService clients = Executors.newFixedThreadPool(posts);
+        try {
+            List<Future<ResponseEntity<PostDto>>> responses = new ArrayList<>();
+            for (int i = 0; i < posts; i++) {
+                PostDto postDto = PostDto.builder().title("Rush " + i).content("Test Content").userId(userId).tags(Set.of(tag)).build();
+                responses.add(clients.submit(() -> restTemplate.postForEntity("/api/posts", postDto, PostDto.class)));
+            }
+            for (Future<ResponseEntity<PostDto>> response : responses) {
+                assertThat(response.get(20, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertThat(restTemplate.getForEntity("/api/posts?tags=" + tag + "&limit=" + posts, PostDto[].class).getBody())
+                .hasSize(posts);
+    }
+
+    @Test
+    void createPost_WithInvalidTag_ReturnsBadRequest() {
+        PostDto postDto = PostDto.builder()
+                .title("Bad tag")
+                .content("Test Content")
+                .userId(userId)
+                .tags(Set.of("no spaces"))
+                .build();
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/posts", postDto, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+    }
+
+    private Long createTaggedPost(String title, Set<String> tags) {
+        PostDto postDto = PostDto.builder()
+                .title(title)
+                .content("Test Content")
+                .userId(userId)
+                .tags(tags)
+                .build();
+        return restTemplate.postForEntity("/api/posts", postDto, PostDto.class).getBody().getId();
+    }
+
+    @Test
+    void streamComments_ReceivesCommentCreatedAfterSubscribing() throws Exception {
+        PostDto postDto = PostDto.builder()
+                .title("Streamed Post")
+                .content("Test Content")
+                .userId(userId)
+                .build();
+        Long postId = restTemplate.postForEntity("/api/posts", postDto, PostDto.class).getBody().getId();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/posts/" + postId + "/comments/stream"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        // The initial retry event flushes the headers, so this returns once the stream is registered
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+
+        CommentDto commentDto = CommentDto.builder().content("Live comment").postId(postId).userId(userId).build();
+        restTemplate.postForEntity("/api/comments", commentDto, CommentDto.class);
+
+        try (Stream<String> lines = response.body()) {
+            List<String> received = CompletableFuture.supplyAsync(() -> lines
+                            .takeWhile(line -> !line.startsWith("data:") || !line.contains("Live comment"))
+                            .toList())
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(received.get(0)).isEqualTo("retry:3000");
+        }
+    }
+
+    @Test
+    void streamComments_WithMoreStreamsThanPooledConnections_LeavesThePoolToOtherRequests() throws Exception {
+        Long postId = createTaggedPost("Busy Stream", Set.of());
+        int streams = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() + 2;
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/posts/" + postId + "/comments/stream"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        List<HttpResponse<Stream<String>>> open = new ArrayList<>();
+        try {
+            for (int i = 0; i < streams; i++) {
+                open.add(client.send(request, HttpResponse.BodyHandlers.ofLines()));
+            }
+
+            // Any connection still held by an idle stream would leave this waiting for the pool's timeout
+            ResponseEntity<String> tree = restTemplate.getForEntity("/api/posts/" + postId + "/comments/tree", String.class);
+
+            assertThat(open).allSatisfy(response -> assertThat(response.statusCode()).isEqualTo(200));
+            assertThat(tree.getStatusCode()).isEqualTo(HttpStatus.OK);
+        } finally {
+            open.forEach(response -> response.body().close());
+        }
+    }
+
+    // The template also accepts CBOR, which skips the payload cache
+    private PostDto getJson(String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), PostDto.class).getBody();
+    }
+
+    private MediaType contentTypeFor(String url, String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (accept != null) {
+            headers.set(HttpHeaders.ACCEPT, accept);
+        }
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getHeaders().getContentType();
     }
 }
@@ -0,0 +1,146 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.cache.PostPayloadCache;
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.UserDto;
+import com.example.blogapp.support.BulkData;
+import com.example.blogapp.support.CleanDatabase;
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.LatencyBudgets;
+import com.example.blogapp.support.SqlCapture;
+import com.example.blogapp.support.TestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against N+1 queries creeping back into the read endpoints: each is called over a
+ * database holding {@value #POSTS} tagged posts with comments, and must stay within a fixed
+ * number of statements and its latency budget. The endpoints only read, so the fixtures are
+ * seeded once for the class.
+ */
+@IntegrationTest
+@CleanDatabase(CleanDatabase.Lifecycle.PER_CLASS)
+class QueryBudgetIntegrationTest {
+
+    private static final int POSTS = 50;
+    private static final int COMMENTS_PER_POST = 2;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private PostPayloadCache postPayloadCache;
+
+    private static Long userId;
+    private static List<Long> postIds;
+    private static String java;
+    private static String spring;
+
+    // Posts go through the API so the tag index sees them; comments are bulk-inserted
+    @BeforeAll
+    static void seed(@Autowired TestRestTemplate restTemplate, @Autowired JdbcTemplate jdbcTemplate) {
+        BulkData bulkData = new BulkData(jdbcTemplate);
+        userId = TestData.createUser(restTemplate);
+        java = TestData.unique("java");
+        spring = TestData.unique("spring");
+        postIds = new ArrayList<>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            PostDto post = TestData.post(userId).tags(Set.of(java, spring)).build();
+            Long postId = restTemplate.postForEntity("/api/posts", post, PostDto.class).getBody().getId();
+            bulkData.comments(postId, userId, COMMENTS_PER_POST);
+            postIds.add(postId);
+        }
+    }
+
+    @Test
+    void getAllPosts_WithTagsAndComments_IssuesAtMostThreeQueries() {
+        SqlCapture.Captured<PostDto[]> captured = sqlCapture.get(restTemplate, "/api/posts", PostDto[].class);
+
+        assertThat(captured.response().getBody()).hasSize(POSTS)
+                .allSatisfy(post -> assertThat(post.getComments()).hasSize(COMMENTS_PER_POST));
+        assertThat(captured.statements()).hasSizeLessThanOrEqualTo(3);
+        LatencyBudgets.assertWithinBudget("posts.list", () -> restTemplate.getForEntity("/api/posts", String.class));
+    }
+
+    @Test
+    void getPostsByTags_IssuesThreeQueries() {
+        String url = "/api/posts?tags=" + java + "," + spring + "&limit=" + POSTS;
+
+        SqlCapture.Captured<PostDto[]> captured = sqlCapture.get(restTemplate, url, PostDto[].class);
+
+        assertThat(captured.response().getBody()).hasSize(POSTS);
+        // The ids come from the tag index, built at startup; then the posts, their tags and their comments
+        assertThat(captured.statements()).hasSize(3);
+        LatencyBudgets.assertWithinBudget("posts.byTags", () -> restTemplate.getForEntity(url, String.class));
+    }
+
+    @Test
+    void getPostById_IssuesAtMostThreeQueries() {
+        String url = "/api/posts/" + postIds.get(0);
+
+        SqlCapture.Captured<PostDto> captured = sqlCapture.get(restTemplate, url, PostDto.class);
+
+        assertThat(captured.response().getBody().getComments()).hasSize(COMMENTS_PER_POST);
+        assertThat(captured.statements()).hasSizeLessThanOrEqualTo(3);
+        // Evicting first times the database load and render, not a payload cache hit
+        LatencyBudgets.assertWithinBudget("posts.byId", () -> {
+            postPayloadCache.evict(postIds.get(0));
+            restTemplate.getForEntity(url, String.class);
+        });
+    }
+
+    @Test
+    void getPostsByUser_IssuesAtMostTwoQueries() {
+        String url = "/api/users/" + userId + "/posts?size=" + POSTS;
+
+        SqlCapture.Captured<String> captured = sqlCapture.get(restTemplate, url, String.class);
+
+        assertThat(captured.response().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(captured.statements()).hasSizeLessThanOrEqualTo(2);
+        LatencyBudgets.assertWithinBudget("users.posts", () -> restTemplate.getForEntity(url, String.class));
+    }
+
+    @Test
+    void getCommentTree_IssuesAtMostTwoQueries() {
+        String url = "/api/posts/" + postIds.get(0) + "/comments/tree";
+
+        SqlCapture.Captured<List> captured = sqlCapture.get(restTemplate, url, List.class);
+
+        assertThat(captured.response().getBody()).hasSize(COMMENTS_PER_POST);
+        assertThat(captured.statements()).hasSizeLessThanOrEqualTo(2);
+        LatencyBudgets.assertWithinBudget("posts.commentTree", () -> restTemplate.getForEntity(url, String.class));
+    }
+
+    @Test
+    void getAllComments_IssuesOneQueryPerChunk() {
+        SqlCapture.Captured<CommentDto[]> captured = sqlCapture.get(restTemplate, "/api/comments", CommentDto[].class);
+
+        assertThat(captured.response().getBody()).hasSize(POSTS * COMMENTS_PER_POST);
+        // The 100 comments fill the first chunk exactly, so a second, empty one ends the listing
+        assertThat(captured.statements()).hasSize(2);
+        LatencyBudgets.assertWithinBudget("comments.list", () -> restTemplate.getForEntity("/api/comments", String.class));
+    }
+
+    @Test
+    void getAllUsers_IssuesOneQuery() {
+        SqlCapture.Captured<UserDto[]> captured = sqlCapture.get(restTemplate, "/api/users", UserDto[].class);
+
+        assertThat(captured.response().getBody()).hasSize(1);
+        assertThat(captured.statements()).hasSize(1);
+        LatencyBudgets.assertWithinBudget("users.list", () -> restTemplate.getForEntity("/api/users", String.class));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.dto.UserDto;
+import com.example.blogapp.support.BulkData;
+import com.example.blogapp.support.CleanDatabase;
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+@CleanDatabase
+class ScaleIntegrationTest {
+
+    private static final int POSTS = 5_000;
+    private static final int COMMENTS = 2_000;
+    // Three chunks of a streamed listing
+    private static final int LISTED = 250;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BulkData bulkData;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        bulkData = new BulkData(jdbcTemplate);
+        userId = TestData.createUser(restTemplate);
+    }
+
+    @Test
+    void getPostsByUser_PagesThroughEveryPostOnce() {
+        List<Long> oldestFirst = bulkData.posts(userId, POSTS);
+        ParameterizedTypeReference<CursorPage<PostSummaryDto>> pageType = new ParameterizedTypeReference<>() {
+        };
+
+        List<Long> seen = new ArrayList<>(POSTS);
+        String cursor = null;
+        do {
+            String url = "/api/users/" + userId + "/posts?size=" + CursorPage.MAX_SIZE + (cursor == null ? "" : "&cursor=" + cursor);
+            CursorPage<PostSummaryDto> page = restTemplate.exchange(url, HttpMethod.GET, null, pageType).getBody();
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> newestFirst = new ArrayList<>(oldestFirst);
+        Collections.reverse(newestFirst);
+        assertThat(seen).isEqualTo(newestFirst);
+    }
+
+    @Test
+    void getAllPosts_StreamsEveryPostChunked() {
+        List<Long> oldestFirst = bulkData.posts(userId, POSTS);
+
+        ResponseEntity<PostDto[]> response = restTemplate.getForEntity("/api/posts", PostDto[].class);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(-1);
+        assertThat(response.getBody()).extracting(PostDto::getId).containsExactlyElementsOf(oldestFirst);
+    }
+
+    @Test
+    void getAllPosts_StreamsEveryPostAsCbor() {
+        List<Long> oldestFirst = bulkData.posts(userId, LISTED);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        ResponseEntity<PostDto[]> response = restTemplate.exchange("/api/posts", HttpMethod.GET, new HttpEntity<>(headers),
+                PostDto[].class);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+        assertThat(response.getBody()).extracting(PostDto::getId).containsExactlyElementsOf(oldestFirst);
+    }
+
+    @Test
+    void getAllComments_StreamsEveryCommentChunked() {
+        Long postId = TestData.createPost(restTemplate, userId);
+        List<Long> ids = bulkData.comments(postId, userId, LISTED);
+
+        ResponseEntity<CommentDto[]> response = restTemplate.getForEntity("/api/comments", CommentDto[].class);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+        assertThat(response.getBody()).extracting(CommentDto::getId).containsExactlyElementsOf(ids);
+        assertThat(response.getBody()).allSatisfy(comment -> assertThat(comment.getPostId()).isEqualTo(postId));
+    }
+
+    @Test
+    void getAllUsers_StreamsEveryUserChunkedWithoutPasswords() {
+        List<Long> ids = new ArrayList<>(List.of(userId));
+        ids.addAll(bulkData.users(TestData.unique("bulk"), LISTED));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/users", String.class);
+        ResponseEntity<UserDto[]> users = restTemplate.getForEntity("/api/users", UserDto[].class);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+        assertThat(response.getBody()).doesNotContain("password").doesNotContain("bulk-password-hash");
+        assertThat(users.getBody()).extracting(UserDto::getId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCommentTree_PagesThroughEveryThreadOnce() {
+        Long postId = TestData.createPost(restTemplate, userId);
+        bulkData.comments(postId, userId, COMMENTS);
+
+        List<Long> seen = new ArrayList<>(COMMENTS);
+        List<Map<String, Object>> threads;
+        do {
+            String after = seen.isEmpty() ? "" : "&after=" + seen.get(seen.size() - 1);
+            threads = restTemplate.getForObject(
+                    "/api/posts/" + postId + "/comments/tree?threads=" + CursorPage.MAX_SIZE + after, List.class);
+            threads.forEach(thread -> seen.add(((Number) thread.get("id")).longValue()));
+        } while (!threads.isEmpty());
+
+        assertThat(seen).hasSize(COMMENTS).doesNotHaveDuplicates().isSorted();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class SqlQueriesEndpointIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_ListsStatementShapesWithTheirOrigin() {
+        Long userId = TestData.createUser(restTemplate);
+        restTemplate.getForEntity("/api/users/" + userId + "/posts", String.class);
+
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/sqlqueries?limit=500", Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Map<String, Object>> frequent = (List<Map<String, Object>>) response.getBody().get("mostFrequent");
+        assertThat(frequent).anySatisfy(shape -> {
+            assertThat((String) shape.get("sql")).containsIgnoringCase("from posts");
+            assertThat((String) shape.get("slowestOrigin"))
+                    .startsWith("UserController.getPostsByUser > PostServiceImpl.getPostsByUser");
+            assertThat(((Number) shape.get("count")).longValue()).isPositive();
+        });
+        assertThat((List<?>) response.getBody().get("slowest")).isNotEmpty();
+    }
+
+    @Test
+    void report_IsNotServedOnTheApplicationPort() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/sqlqueries", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.SpanCapture;
+import com.example.blogapp.support.TestData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class TracingIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SpanCapture spanCapture;
+
+    @Test
+    void getPostById_RecordsControllerServiceRepositoryAndJdbcSpans() throws InterruptedException {
+        Long postId = TestData.createPost(restTemplate, TestData.createUser(restTemplate));
+        String traceId = UUID.randomUUID().toString().replace("-", "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("traceparent", SpanCapture.traceparent(traceId));
+        // CBOR skips the payload cache, so the read reaches the service on every call
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/posts/" + postId, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<SpanData> spans = awaitSpans(traceId);
+        Map<String, SpanData> byId = spans.stream().collect(Collectors.toMap(SpanData::getSpanId, Function.identity()));
+        SpanData repository = spans.stream().filter(span -> span.getName().equals("post-repository#find-by-id"))
+                .findFirst().orElseThrow();
+        SpanData service = byId.get(repository.getParentSpanId());
+        SpanData request = byId.get(service.getParentSpanId());
+        assertThat(spans).anySatisfy(jdbc -> {
+            assertThat(jdbc.getName()).isEqualTo("select");
+            assertThat(jdbc.getParentSpanId()).isEqualTo(repository.getSpanId());
+        });
+        assertThat(service.getName()).isEqualTo("post-service-impl#get-post-by-id");
+        assertThat(request.getName()).isEqualTo("http get /api/posts/{id}");
+    }
+
+    // The request span ends after the response is written, and export runs on a schedule
+    private List<SpanData> awaitSpans(String traceId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<SpanData> spans = spanCapture.spansOf(traceId);
+        while (spans.stream().noneMatch(span -> span.getName().startsWith("http ")) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            spans = spanCapture.spansOf(traceId);
+        }
+        return spans;
+    }
+}
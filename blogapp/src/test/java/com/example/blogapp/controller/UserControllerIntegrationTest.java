@@ -1,22 +1,29 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.LoginDto;
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.PostSummaryDto;
 import com.example.blogapp.dto.UserDto;
+import com.example.blogapp.support.IntegrationTest;
+import com.example.blogapp.support.TestData;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@ActiveProfiles("test")
+@IntegrationTest
 class UserControllerIntegrationTest {
 
     @Autowired
@@ -26,7 +33,7 @@ class UserControllerIntegrationTest {
     void createUser_WithValidData_ReturnsCreatedUser() {
         // Arrange
         UserDto userDto = UserDto.builder()
-                .username("testuser")
+                .username(TestData.unique("testuser"))
                 .fullName("Test User")
                 .password("password123")
                 .build();
@@ -42,6 +49,135 @@ class UserControllerIntegrationTest {
         assertThat(response.getBody().getId()).isNotNull();
     }
 
+    @Test
+    void createUser_ResponseDoesNotContainPassword() {
+        UserDto userDto = UserDto.builder()
+                .username(TestData.unique("nopassworduser"))
+                .fullName("No Password User")
+                .password("password123")
+                .build();
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/users", userDto, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).doesNotContain("\"password\"");
+    }
+
+    @Test
+    void login_WithCorrectPassword_ReturnsUser() {
+        String username = TestData.unique("loginuser");
+        UserDto userDto = UserDto.builder()
+                .username(username)
+                .fullName("Login User")
+                .password("password123")
+                .build();
+        restTemplate.postForEntity("/api/users", userDto, UserDto.class);
+
+        ResponseEntity<UserDto> ok = restTemplate.postForEntity("/api/users/login",
+                new LoginDto(username, "password123"), UserDto.class);
+        ResponseEntity<String> rejected = restTemplate.postForEntity("/api/users/login",
+                new LoginDto(username, "wrong"), String.class);
+
+        assertThat(ok.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ok.getBody().getUsername()).isEqualTo(username);
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void getUserByUsername_WithExistingUsername_ReturnsUser() {
+        String username = TestData.unique("byusername");
+        UserDto userDto = UserDto.builder()
+                .username(username)
+                .fullName("By Username")
+                .password("password123")
+                .build();
+        restTemplate.postForEntity("/api/users", userDto, UserDto.class);
+
+        ResponseEntity<UserDto> response = restTemplate.getForEntity("/api/users/by-username/" + username, UserDto.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getFullName()).isEqualTo("By Username");
+    }
+
+    @Test
+    void checkUsernameAvailability_ReflectsCreatedUsers() {
+        String taken = TestData.unique("takenname");
+        UserDto userDto = UserDto.builder()
+                .username(taken)
+                .fullName("Taken Name")
+                .password("password123")
+                .build();
+        restTemplate.postForEntity("/api/users", userDto, UserDto.class);
+
+        ResponseEntity<Map> takenResponse = restTemplate.getForEntity("/api/users/availability?username=" + taken, Map.class);
+        ResponseEntity<Map> freeResponse = restTemplate.getForEntity(
+                "/api/users/availability?username=" + TestData.unique("freename"), Map.class);
+        ResponseEntity<String> duplicate = restTemplate.postForEntity("/api/users", userDto, String.class);
+
+        assertThat(takenResponse.getBody().get("available")).isEqualTo(false);
+        assertThat(freeResponse.getBody().get("available")).isEqualTo(true);
+        assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void getPostsByUser_ShouldPageNewestFirstWithCursor() {
+        UserDto userDto = UserDto.builder()
+                .username(TestData.unique("pagedauthor"))
+                .fullName("Paged Author")
+                .password("password123")
+                .build();
+        Long userId = restTemplate.postForEntity("/api/users", userDto, UserDto.class).getBody().getId();
+        for (int i = 1; i <= 3; i++) {
+            restTemplate.postForEntity("/api/posts",
+                    PostDto.builder().title("Post " + i).content("Content").userId(userId).build(), PostDto.class);
+        }
+        ParameterizedTypeReference<CursorPage<PostSummaryDto>> pageType = new ParameterizedTypeReference<>() {
+        };
+
+        CursorPage<PostSummaryDto> first = restTemplate.exchange("/api/users/" + userId + "/posts?size=2",
+                HttpMethod.GET, null, pageType).getBody();
+        CursorPage<PostSummaryDto> second = restTemplate.exchange("/api/users/" + userId + "/posts?size=2&cursor=" + first.getNextCursor(),
+                HttpMethod.GET, null, pageType).getBody();
+
+        assertThat(first.getItems()).extracting(PostSummaryDto::getTitle).containsExactly("Post 3", "Post 2");
+        assertThat(second.getItems()).extracting(PostSummaryDto::getTitle).containsExactly("Post 1");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTimeline_ShouldContainPostsOfFollowedAuthors() throws InterruptedException {
+        Long readerId = restTemplate.postForEntity("/api/users",
+                UserDto.builder().username(TestData.unique("reader")).fullName("Reader").password("password123").build(),
+                UserDto.class).getBody().getId();
+        Long authorId = restTemplate.postForEntity("/api/users",
+                UserDto.builder().username(TestData.unique("followedauthor")).fullName("Author").password("password123").build(),
+                UserDto.class).getBody().getId();
+        restTemplate.put("/api/users/" + readerId + "/following/" + authorId, null);
+        restTemplate.postForEntity("/api/posts",
+                PostDto.builder().title("Before first read").content("Content").userId(authorId).build(), PostDto.class);
+        ParameterizedTypeReference<CursorPage<PostSummaryDto>> pageType = new ParameterizedTypeReference<>() {
+        };
+
+        CursorPage<PostSummaryDto> rebuilt = restTemplate.exchange("/api/users/" + readerId + "/timeline",
+                HttpMethod.GET, null, pageType).getBody();
+        assertThat(rebuilt.getItems()).extracting(PostSummaryDto::getTitle).containsExactly("Before first read");
+
+        // Fan-out into the now materialized timeline happens asynchronously
+        restTemplate.postForEntity("/api/posts",
+                PostDto.builder().title("Fanned out").content("Content").userId(authorId).build(), PostDto.class);
+        CursorPage<PostSummaryDto> fannedOut = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            fannedOut = restTemplate.exchange("/api/users/" + readerId + "/timeline",
+                    HttpMethod.GET, null, pageType).getBody();
+            if (fannedOut.getItems().size() == 2) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(fannedOut.getItems()).extracting(PostSummaryDto::getTitle)
+                .containsExactly("Fanned out", "Before first read");
+    }
+
     @Test
     void getAllUsers_ReturnsListOfUsers() {
         // Act
@@ -56,7 +192,7 @@ class UserControllerIntegrationTest {
     void getUserById_WithExistingId_ReturnsUser() {
         // Arrange
         UserDto userDto = UserDto.builder()
-                .username("testuser2")
+                .username(TestData.unique("testuser2"))
                 .fullName("Test User 2")
                 .password("password123")
                 .build();
@@ -73,11 +209,30 @@ class UserControllerIntegrationTest {
         assertThat(response.getBody().getUsername()).isEqualTo(userDto.getUsername());
     }
 
+    @Test
+    // Predicts the next id, so no other class may create users meanwhile
+    @ResourceLock(value = IntegrationTest.DATABASE, mode = ResourceAccessMode.READ_WRITE)
+    void getUserById_OfIdCreatedAfterMiss_ReturnsUser() {
+        Long lastId = restTemplate.postForEntity("/api/users",
+                UserDto.builder().username(TestData.unique("before")).fullName("Before").password("password123").build(),
+                UserDto.class).getBody().getId();
+        assertThat(restTemplate.getForEntity("/api/users/" + (lastId + 1), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+
+        Long nextId = restTemplate.postForEntity("/api/users",
+                UserDto.builder().username(TestData.unique("after")).fullName("After").password("password123").build(),
+                UserDto.class).getBody().getId();
+
+        assertThat(nextId).isEqualTo(lastId + 1);
+        assertThat(restTemplate.getForEntity("/api/users/" + nextId, UserDto.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void updateUser_WithValidData_ReturnsUpdatedUser() {
         // Arrange
         UserDto userDto = UserDto.builder()
-                .username("originaluser")
+                .username(TestData.unique("originaluser"))
                 .fullName("Original Name")
                 .password("password123")
                 .build();
@@ -85,7 +240,7 @@ class UserControllerIntegrationTest {
         Long userId = createResponse.getBody().getId();
 
         UserDto updateDto = UserDto.builder()
-                .username("updateduser")
+                .username(TestData.unique("updateduser"))
                 .fullName("Updated Name")
                 .password("newpassword123")
                 .build();
@@ -109,7 +264,7 @@ class UserControllerIntegrationTest {
     void deleteUser_WithExistingId_ReturnsNoContent() {
         // Arrange
         UserDto userDto = UserDto.builder()
-                .username("userToDelete")
+                .username(TestData.unique("userToDelete"))
                 .fullName("Delete Me")
                 .password("password123")
                 .build();
@@ -129,7 +284,7 @@ class UserControllerIntegrationTest {
 
         // Verify the user is deleted
         ResponseEntity<UserDto> getResponse = restTemplate.getForEntity("/api/users/" + userId, UserDto.class);
-        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
 }
\ No newline at end of file
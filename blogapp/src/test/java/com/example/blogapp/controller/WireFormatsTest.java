@@ -0,0 +1,26 @@
+package com.example.blogapp.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatsTest {
+
+    @Test
+    void acceptsGzip_WhenListedOrCoveredByWildcard_ShouldAllowIt() {
+        assertThat(WireFormats.acceptsGzip("gzip")).isTrue();
+        assertThat(WireFormats.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(WireFormats.acceptsGzip("br, *")).isTrue();
+    }
+
+    @Test
+    void acceptsGzip_WhenRefusedOrOnlyMentioned_ShouldRefuseIt() {
+        assertThat(WireFormats.acceptsGzip(null)).isFalse();
+        assertThat(WireFormats.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(WireFormats.acceptsGzip("gzip; q=0.0, identity")).isFalse();
+        assertThat(WireFormats.acceptsGzip("identity, x-gzip")).isFalse();
+        assertThat(WireFormats.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(WireFormats.acceptsGzip("*;q=0")).isFalse();
+        assertThat(WireFormats.acceptsGzip("gzip;q=high")).isFalse();
+    }
+}
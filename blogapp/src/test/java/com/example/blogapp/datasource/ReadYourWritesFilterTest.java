@@ -0,0 +1,78 @@
+package com.example.blogapp.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private static final String PROXY_ADDRESS = "10.0.0.1";
+
+    private ReadYourWritesTracker tracker;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 10);
+        filter = new ReadYourWritesFilter(tracker);
+    }
+
+    @Test
+    void write_ShouldPinOnlyThatClientsReads_WhenClientsShareAnAddress() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(request("POST", null), writeResponse, (req, res) -> {
+        });
+        Cookie issued = writeResponse.getCookie(ReadYourWritesFilter.CLIENT_COOKIE);
+
+        assertThat(issued).isNotNull();
+        assertThat(readIsPinned(issued)).isTrue();
+        assertThat(readIsPinned(null)).isFalse();
+        assertThat(readIsPinned(new Cookie(ReadYourWritesFilter.CLIENT_COOKIE, "other-client"))).isFalse();
+    }
+
+    @Test
+    void write_WithExistingCookie_ShouldKeepIt() throws Exception {
+        Cookie cookie = new Cookie(ReadYourWritesFilter.CLIENT_COOKIE, "client-1");
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+
+        filter.doFilter(request("PUT", cookie), writeResponse, (req, res) -> {
+        });
+
+        assertThat(writeResponse.getCookie(ReadYourWritesFilter.CLIENT_COOKIE)).isNull();
+        assertThat(readIsPinned(cookie)).isTrue();
+    }
+
+    @Test
+    void failedWrite_ShouldNotPinReads() throws Exception {
+        Cookie cookie = new Cookie(ReadYourWritesFilter.CLIENT_COOKIE, "client-1");
+
+        filter.doFilter(request("POST", cookie), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(400));
+
+        assertThat(readIsPinned(cookie)).isFalse();
+    }
+
+    private boolean readIsPinned(Cookie cookie) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request("GET", cookie), new MockHttpServletResponse(),
+                (req, res) -> pinned.set(tracker.isPinnedToPrimary()));
+        assertThat(tracker.isPinnedToPrimary()).isFalse();
+        return pinned.get();
+    }
+
+    private MockHttpServletRequest request(String method, Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/posts");
+        request.setRemoteAddr(PROXY_ADDRESS);
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        return request;
+    }
+}
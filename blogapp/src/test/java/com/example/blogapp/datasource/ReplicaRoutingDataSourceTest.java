@@ -0,0 +1,108 @@
+package com.example.blogapp.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary", "primary");
+        DataSource replica = h2("routing-replica", "replica");
+        tracker = new ReadYourWritesTracker(Duration.ofMillis(200), 10);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, List.of(replica), tracker));
+
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readTx = new TransactionTemplate(txManager);
+        readTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(txManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.unpin();
+    }
+
+    private DataSource h2(String name, String marker) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", marker);
+        return ds;
+    }
+
+    private String currentNode(TransactionTemplate tx) {
+        return tx.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertThat(currentNode(readTx)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertThat(currentNode(writeTx)).isEqualTo("primary");
+    }
+
+    @Test
+    void readWriteTransaction_AfterReadOnlyOne_ShouldUsePrimary() {
+        assertThat(currentNode(readTx)).isEqualTo("replica");
+
+        assertThat(currentNode(writeTx)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_WhenPinned_ShouldUsePrimary() {
+        tracker.pinToPrimary();
+
+        assertThat(currentNode(readTx)).isEqualTo("primary");
+    }
+
+    @Test
+    void wroteRecently_ShouldExpireAfterStickinessWindow() throws InterruptedException {
+        tracker.recordWrite("10.0.0.1");
+
+        assertThat(tracker.wroteRecently("10.0.0.1")).isTrue();
+        assertThat(tracker.wroteRecently("10.0.0.2")).isFalse();
+
+        Thread.sleep(250);
+
+        assertThat(tracker.wroteRecently("10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void recordWrite_WhenEveryTrackedClientIsLive_ShouldEvictOnlyTheOldest() {
+        ReadYourWritesTracker small = new ReadYourWritesTracker(Duration.ofMinutes(1), 10);
+        for (int i = 0; i <= 10; i++) {
+            small.recordWrite("client-" + i);
+        }
+
+        assertThat(small.wroteRecently("client-0")).isFalse();
+        // client-1 may share client-0's timestamp on a coarse clock
+        for (int i = 2; i <= 10; i++) {
+            assertThat(small.wroteRecently("client-" + i)).as("client-" + i).isTrue();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.blogapp.dto;
+
+import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.Tag;
+import com.example.blogapp.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every field is set to a value no other field of the same type has, so an argument swapped inside
+ * a DTO's factory or constructor fails here.
+ */
+class DtoMapperTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 2, 8, 30);
+    private static final LocalDateTime COMMENT_CREATED = LocalDateTime.of(2025, 1, 3, 9, 15);
+    private static final LocalDateTime COMMENT_UPDATED = LocalDateTime.of(2025, 1, 4, 18, 45);
+
+    private final User user = User.builder()
+            .id(1L).username("testuser").fullName("Test User").password("hash").createdAt(CREATED).updatedAt(UPDATED)
+            .build();
+
+    @Test
+    void toDto_OfPost_ShouldCopyFieldsSortTagsAndMapComments() {
+        PostDto dto = DtoMapper.toDto(post());
+
+        assertThat(dto.getId()).isEqualTo(2L);
+        assertThat(dto.getTitle()).isEqualTo("Title");
+        assertThat(dto.getContent()).isEqualTo("Content");
+        assertThat(dto.getUserId()).isEqualTo(1L);
+        assertThat(dto.getCreatedAt()).isEqualTo(CREATED);
+        assertThat(dto.getUpdatedAt()).isEqualTo(UPDATED);
+        assertThat(dto.getViewCount()).isEqualTo(300L);
+        assertThat(dto.getTags()).containsExactly("java", "spring");
+        assertThat(dto.getComments()).singleElement().satisfies(comment -> {
+            assertThat(comment.getId()).isEqualTo(3L);
+            assertThat(comment.getContent()).isEqualTo("Comment");
+            assertThat(comment.getPostId()).isEqualTo(2L);
+            assertThat(comment.getUserId()).isEqualTo(1L);
+            assertThat(comment.getParentId()).isEqualTo(4L);
+            assertThat(comment.getCreatedAt()).isEqualTo(COMMENT_CREATED);
+            assertThat(comment.getUpdatedAt()).isEqualTo(COMMENT_UPDATED);
+        });
+    }
+
+    @Test
+    void toDto_OfPostWithoutTagsOrLoadedComments_ShouldReturnEmptyTagsAndNoComments() {
+        Post post = Post.builder().id(2L).title("Title").content("Content").user(user).build();
+
+        PostDto dto = DtoMapper.toDto(post);
+
+        assertThat(dto.getTags()).isEmpty();
+        assertThat(dto.getComments()).isNull();
+    }
+
+    @Test
+    void toDto_OfUser_ShouldCopyFieldsAndLeavePasswordOut() {
+        UserDto dto = DtoMapper.toDto(user);
+
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getUsername()).isEqualTo("testuser");
+        assertThat(dto.getFullName()).isEqualTo("Test User");
+        assertThat(dto.getPassword()).isNull();
+        assertThat(dto.getCreatedAt()).isEqualTo(CREATED);
+        assertThat(dto.getUpdatedAt()).isEqualTo(UPDATED);
+    }
+
+    @Test
+    void copy_OfPost_ShouldKeepEveryFieldInPlace() {
+        PostDto original = DtoMapper.toDto(post());
+
+        PostDto copy = DtoMapper.copy(original);
+
+        assertThat(original).hasNoNullFieldsOrProperties();
+        assertThat(original.getComments().get(0)).hasNoNullFieldsOrProperties();
+        assertThat(copy).usingRecursiveComparison().isEqualTo(original);
+    }
+
+    @Test
+    void copy_OfUser_ShouldKeepEveryFieldInPlace() {
+        UserDto original = new UserDto(1L, "testuser", "Test User", "secret", CREATED, UPDATED);
+
+        UserDto copy = DtoMapper.copy(original);
+
+        assertThat(copy).usingRecursiveComparison().isEqualTo(original);
+    }
+
+    @Test
+    void copy_OfPost_ShouldNotShareMutableState() {
+        PostDto original = DtoMapper.toDto(post());
+
+        PostDto copy = DtoMapper.copy(original);
+        copy.setTitle("Changed");
+        copy.getTags().add("kotlin");
+        copy.getComments().get(0).setContent("Changed");
+
+        assertThat(original.getTitle()).isEqualTo("Title");
+        assertThat(original.getTags()).containsExactly("java", "spring");
+        assertThat(original.getComments().get(0).getContent()).isEqualTo("Comment");
+        assertThat(copy.getViewCount()).isEqualTo(300L);
+    }
+
+    private Post post() {
+        Post post = Post.builder()
+                .id(2L).title("Title").content("Content").user(user).createdAt(CREATED).updatedAt(UPDATED).viewCount(300)
+                .tags(new HashSet<>(Set.of(Tag.builder().name("spring").build(), Tag.builder().name("java").build())))
+                .build();
+        post.setComments(List.of(Comment.builder().id(3L).content("Comment").post(post).user(user).parentId(4L)
+                .createdAt(COMMENT_CREATED).updatedAt(COMMENT_UPDATED).build()));
+        return post;
+    }
+}
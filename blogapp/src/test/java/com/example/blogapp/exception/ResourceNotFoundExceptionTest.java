@@ -0,0 +1,22 @@
+package com.example.blogapp.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceNotFoundExceptionTest {
+
+    @Test
+    void constructor_ShouldNotCaptureStackTrace() {
+        ResourceNotFoundException exception = new ResourceNotFoundException("Post", "id", 42L);
+
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void getMessage_ShouldDescribeMissingResource() {
+        ResourceNotFoundException exception = new ResourceNotFoundException("User", "username", "ghost");
+
+        assertThat(exception.getMessage()).isEqualTo("User not found with username : 'ghost'");
+    }
+}
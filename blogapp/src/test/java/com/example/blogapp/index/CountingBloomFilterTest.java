@@ -0,0 +1,60 @@
+package com.example.blogapp.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_AfterAdd_ShouldBeTrue() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+
+        filter.add("alice");
+
+        assertThat(filter.mightContain("alice")).isTrue();
+        assertThat(filter.mightContain("bob")).isFalse();
+    }
+
+    @Test
+    void mightContain_AfterRemove_ShouldBeFalse() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("alice");
+        filter.add("bob");
+
+        filter.remove("alice");
+
+        assertThat(filter.mightContain("alice")).isFalse();
+        assertThat(filter.mightContain("bob")).isTrue();
+    }
+
+    @Test
+    void remove_OfValuesNeverAdded_ShouldLeaveAddedValues() {
+        // 64 counters shared by 44 hashes per value, so every value overlaps with alice
+        CountingBloomFilter filter = new CountingBloomFilter(1, 0.5);
+        filter.add("alice");
+
+        for (int i = 0; i < 100; i++) {
+            filter.remove("stranger" + i);
+        }
+
+        assertThat(filter.mightContain("alice")).isTrue();
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
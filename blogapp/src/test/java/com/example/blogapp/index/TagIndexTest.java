@@ -0,0 +1,63 @@
+package com.example.blogapp.index;
+
+import com.example.blogapp.event.PostTagsChangedEvent;
+import com.example.blogapp.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TagIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private TagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        given(postRepository.findAllTagAssignments()).willReturn(List.of(
+                new Object[]{"java", 1L}, new Object[]{"java", 2L}, new Object[]{"java", 3L},
+                new Object[]{"spring", 2L}, new Object[]{"spring", 3L},
+                new Object[]{"jpa", 3L}));
+        index.rebuild();
+    }
+
+    @Test
+    void findNewest_ShouldIntersectAllTagsHighestIdFirst() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.findNewest(Set.of("java", "spring"), 10)).containsExactly(3L, 2L);
+        assertThat(index.findNewest(Set.of("java", "spring", "jpa"), 10)).containsExactly(3L);
+        assertThat(index.findNewest(Set.of("java"), 2)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void findNewest_WithUnknownTag_ShouldReturnEmpty() {
+        assertThat(index.findNewest(Set.of("java", "kotlin"), 10)).isEmpty();
+    }
+
+    @Test
+    void onPostTagsChanged_ShouldMoveThePostBetweenTags() {
+        index.onPostTagsChanged(new PostTagsChangedEvent(1L, Set.of("java"), Set.of("kotlin")));
+
+        assertThat(index.findNewest(Set.of("java"), 10)).containsExactly(3L, 2L);
+        assertThat(index.findNewest(Set.of("kotlin"), 10)).containsExactly(1L);
+    }
+
+    @Test
+    void findNewest_ShouldNotModifyTheIndex() {
+        index.findNewest(Set.of("java", "jpa"), 10);
+
+        assertThat(index.findNewest(Set.of("java"), 10)).containsExactly(3L, 2L, 1L);
+    }
+}
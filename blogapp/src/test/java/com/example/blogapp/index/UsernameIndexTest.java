@@ -0,0 +1,71 @@
+package com.example.blogapp.index;
+
+import com.example.blogapp.config.UsernameIndexProperties;
+import com.example.blogapp.event.UsernameChangedEvent;
+import com.example.blogapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UsernameIndex(userRepository, new UsernameIndexProperties());
+    }
+
+    @Test
+    void mightBeTaken_BeforeRebuild_ShouldAnswerTrue() {
+        assertThat(index.mightBeTaken("anyone")).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldReplayChangesThatCommitWhileTheTableIsRead() {
+        given(userRepository.count()).willReturn(2L);
+        given(userRepository.findAllUsernames()).willAnswer(invocation -> {
+            // Committed after the rows were read
+            index.onUsernameChanged(new UsernameChangedEvent("bob", null));
+            index.onUsernameChanged(new UsernameChangedEvent(null, "carol"));
+            // Committed before, so already in the rows; counting them again would skew later removals
+            index.onUsernameChanged(new UsernameChangedEvent(null, "alice"));
+            index.onUsernameChanged(new UsernameChangedEvent("dave", null));
+            return List.of("alice", "bob");
+        });
+
+        index.rebuild();
+
+        assertThat(index.mightBeTaken("alice")).isTrue();
+        assertThat(index.mightBeTaken("carol")).isTrue();
+        assertThat(index.mightBeTaken("bob")).isFalse();
+        assertThat(index.mightBeTaken("dave")).isFalse();
+
+        index.onUsernameChanged(new UsernameChangedEvent("alice", null));
+
+        assertThat(index.mightBeTaken("alice")).isFalse();
+        assertThat(index.mightBeTaken("carol")).isTrue();
+    }
+
+    @Test
+    void onUsernameChanged_WithRename_ShouldFreeTheOldName() {
+        given(userRepository.findAllUsernames()).willReturn(List.of("alice"));
+        index.rebuild();
+
+        index.onUsernameChanged(new UsernameChangedEvent("alice", "alicia"));
+
+        assertThat(index.mightBeTaken("alice")).isFalse();
+        assertThat(index.mightBeTaken("alicia")).isTrue();
+    }
+}
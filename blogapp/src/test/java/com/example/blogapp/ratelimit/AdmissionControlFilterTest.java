@@ -0,0 +1,62 @@
+package com.example.blogapp.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void doFilter_WhenOverConcurrencyLimit_ShouldRejectWith503() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, objectMapper, meterRegistry);
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+
+        // The outer request is still in flight while the inner one arrives
+        MockFilterChain outerChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response)
+                    throws IOException, ServletException {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), innerResponse, new MockFilterChain());
+            }
+        };
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), outerResponse, outerChain);
+
+        assertThat(outerResponse.getStatus()).isEqualTo(200);
+        assertThat(innerResponse.getStatus()).isEqualTo(503);
+        assertThat(innerResponse.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(objectMapper.readTree(innerResponse.getContentAsString()).get("status").asInt()).isEqualTo(503);
+        assertThat(objectMapper.readTree(innerResponse.getContentAsString()).get("instance").asText())
+                .isEqualTo("/api/posts");
+        assertThat(meterRegistry.get("blogapp.requests.rejected").tag("reason", "overloaded").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilter_AfterRequestCompletes_ShouldReleaseSlot() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, objectMapper, meterRegistry);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), first, new MockFilterChain());
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), second, new MockFilterChain());
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.blogapp.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void doFilter_WhenBucketIsEmpty_ShouldRejectWithProblemDetail() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new TokenBucketRateLimiter(1, 1, 10), objectMapper,
+                new SimpleMeterRegistry());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), rejected, new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        JsonNode body = objectMapper.readTree(rejected.getContentAsString());
+        assertThat(body.get("title").asText()).isEqualTo("Too Many Requests");
+        assertThat(body.get("status").asInt()).isEqualTo(429);
+        assertThat(body.get("instance").asText()).isEqualTo("/api/posts");
+    }
+}
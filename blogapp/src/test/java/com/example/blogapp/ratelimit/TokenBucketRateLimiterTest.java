@@ -0,0 +1,69 @@
+package com.example.blogapp.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(10 * SECOND);
+
+    @Test
+    void tryAcquire_WithinBurst_ShouldAllow() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3, 10, clock::get);
+
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void tryAcquire_WhenBucketEmpty_ShouldReturnWaitUntilRefill() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 10, clock::get);
+        limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+
+        assertThat(limiter.tryAcquire("client")).isEqualTo(SECOND);
+
+        clock.addAndGet(SECOND);
+        assertThat(limiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 10, clock::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void tryAcquire_WhenTooManyKeys_ShouldEvictRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        clock.addAndGet(5 * SECOND);
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_WhenTooManyLiveKeys_ShouldKeepTheirBucketsAndShareOneForNewKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isPositive();
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.blogapp.security;
+
+import com.example.blogapp.config.PasswordHashingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher = hasher(4);
+
+    private static PasswordHasher hasher(int strength) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(strength);
+        properties.setHashingThreads(1);
+        return new PasswordHasher(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hash_ShouldProduceVerifiableBcryptHash() {
+        String hash = hasher.hash("secret");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("other", hash)).isFalse();
+    }
+
+    @Test
+    void matchesDummy_ShouldNeverMatch() {
+        assertThat(hasher.matchesDummy("secret")).isFalse();
+        assertThat(hasher.matchesDummy("")).isFalse();
+    }
+
+    @Test
+    void needsRehash_WhenStrengthIncreased_ShouldBeTrue() {
+        String weakHash = hasher.hash("secret");
+        hasher.shutdown();
+        hasher = hasher(5);
+
+        assertThat(hasher.needsRehash(weakHash)).isTrue();
+        assertThat(hasher.needsRehash(hasher.hash("secret"))).isFalse();
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
 import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.dto.CommentSummaryDto;
+import com.example.blogapp.dto.CursorPage;
 import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.Post;
 import com.example.blogapp.entity.User;
@@ -8,15 +12,19 @@ import com.example.blogapp.exception.ResourceNotFoundException;
 import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.repository.PostRepository;
 import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.support.LookupLayers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -39,6 +47,15 @@ class CommentServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -79,33 +96,31 @@ class CommentServiceImplTest {
     }
 
     @Test
-    void getAllComments_ShouldReturnListOfCommentDtos() {
+    void getCommentsAfter_ShouldReturnOneChunk() {
         // Given
-        List<Comment> comments = Arrays.asList(comment);
-        given(commentRepository.findAll()).willReturn(comments);
+        given(commentRepository.findChunkAfter(0L, Limit.of(100))).willReturn(List.of(commentDto));
 
         // When
-        List<CommentDto> commentDtos = commentService.getAllComments();
+        List<CommentDto> commentDtos = commentService.getCommentsAfter(0L, 10_000);
 
         // Then
-        assertThat(commentDtos).isNotEmpty();
-        assertThat(commentDtos.size()).isEqualTo(1);
-        verify(commentRepository).findAll();
+        assertThat(commentDtos).containsExactly(commentDto);
+        verify(commentRepository).findChunkAfter(0L, Limit.of(100));
     }
 
     @Test
-    void getAllComments_WhenNoCommentsExist_ShouldReturnEmptyList() {
-        given(commentRepository.findAll()).willReturn(Collections.emptyList());
+    void getCommentsAfter_WhenNoCommentsRemain_ShouldReturnEmptyList() {
+        given(commentRepository.findChunkAfter(1L, Limit.of(100))).willReturn(Collections.emptyList());
 
-        List<CommentDto> commentDtos = commentService.getAllComments();
+        List<CommentDto> commentDtos = commentService.getCommentsAfter(1L, 100);
 
         assertThat(commentDtos).isEmpty();
-        verify(commentRepository).findAll();
     }
 
     @Test
     void getCommentById_WithValidId_ShouldReturnCommentDto() {
         // Given
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.COMMENT, singleFlight, "comment", 1L);
         given(commentRepository.findById(1L)).willReturn(Optional.of(comment));
 
         // When
@@ -120,6 +135,7 @@ class CommentServiceImplTest {
     @Test
     void getCommentById_WithInvalidId_ShouldThrowException() {
         // Given
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.COMMENT, singleFlight, "comment", 1L);
         given(commentRepository.findById(1L)).willReturn(Optional.empty());
 
         // When/Then
@@ -170,6 +186,57 @@ class CommentServiceImplTest {
         verify(commentRepository, never()).save(any());
     }
 
+    @Test
+    void createComment_AsReply_ShouldExtendParentPath() {
+        Comment parent = Comment.builder().id(1L).post(post).user(user)
+                .rootId(1L).path("0000000000000000001/").build();
+        Comment reply = Comment.builder().id(2L).content("Reply").post(post).user(user).build();
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(commentRepository.findById(1L)).willReturn(Optional.of(parent));
+        given(commentRepository.save(any(Comment.class))).willReturn(reply);
+        commentDto.setParentId(1L);
+
+        commentService.createComment(commentDto);
+
+        verify(commentRepository).save(argThat(saved -> saved.getParentId().equals(1L)));
+        assertThat(reply.getRootId()).isEqualTo(1L);
+        assertThat(reply.getPath()).isEqualTo("0000000000000000001/0000000000000000002/");
+    }
+
+    @Test
+    void createComment_WithParentOnAnotherPost_ShouldThrowBadRequest() {
+        Post otherPost = Post.builder().id(2L).user(user).build();
+        Comment parent = Comment.builder().id(5L).post(otherPost).user(user)
+                .rootId(5L).path("0000000000000000005/").build();
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(commentRepository.findById(5L)).willReturn(Optional.of(parent));
+        commentDto.setParentId(5L);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> commentService.createComment(commentDto));
+
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void updateComment_MovingReplyToAnotherPost_ShouldThrowBadRequest() {
+        Post otherPost = Post.builder().id(2L).user(user).build();
+        comment.setParentId(7L);
+        given(commentRepository.findById(1L)).willReturn(Optional.of(comment));
+        given(postRepository.findById(2L)).willReturn(Optional.of(otherPost));
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        CommentDto moveDto = CommentDto.builder().content("Moved").postId(2L).userId(1L).build();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> commentService.updateComment(1L, moveDto));
+
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(commentRepository, never()).save(any());
+    }
+
     @Test
     void updateComment_WithValidData_ShouldReturnUpdatedCommentDto() {
         // Given
@@ -273,4 +340,24 @@ class CommentServiceImplTest {
         verify(commentRepository).existsById(1L);
         verify(commentRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCommentsByUser_WithFewerRowsThanPageSize_ShouldReturnLastPage() {
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(commentRepository.findSummariesByUserId(1L, Limit.of(21)))
+                .willReturn(List.of(new CommentSummaryDto(1L, 1L, "Test Comment", LocalDateTime.now())));
+
+        CursorPage<CommentSummaryDto> page = commentService.getCommentsByUser(1L, null, 20);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getCommentsByUser_WithInvalidUserId_ShouldThrowException() {
+        given(userRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentsByUser(1L, null, 20));
+        verify(commentRepository, never()).findSummariesByUserId(any(), any());
+    }
+}
@@ -1,27 +1,43 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.KeysetCursor;
 import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.PostSummaryDto;
 import com.example.blogapp.entity.Post;
+import com.example.blogapp.entity.Tag;
 import com.example.blogapp.entity.User;
+import com.example.blogapp.event.PostTagsChangedEvent;
 import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.index.TagIndex;
+import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.repository.PostRepository;
+import com.example.blogapp.repository.TagRepository;
 import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.trending.TrendingRanker;
+import com.example.blogapp.support.LookupLayers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -34,6 +50,27 @@ class PostServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TrendingRanker trendingRanker;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TagIndex tagIndex;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
     @InjectMocks
     private PostServiceImpl postService;
 
@@ -68,33 +105,41 @@ class PostServiceImplTest {
     }
 
     @Test
-    void getAllPosts_ShouldReturnListOfPostDtos() {
+    void getPostsAfter_ShouldReturnListOfPostDtos() {
         // Given
-        List<Post> posts = Arrays.asList(post);
-        given(postRepository.findAll()).willReturn(posts);
+        given(postRepository.findChunkAfter(0L, Limit.of(100))).willReturn(List.of(post));
 
         // When
-        List<PostDto> postDtos = postService.getAllPosts();
+        List<PostDto> postDtos = postService.getPostsAfter(0L, 100);
 
         // Then
-        assertThat(postDtos).isNotEmpty();
-        assertThat(postDtos.size()).isEqualTo(1);
-        verify(postRepository).findAll();
+        assertThat(postDtos).extracting(PostDto::getId).containsExactly(1L);
+        verify(postRepository).findChunkAfter(0L, Limit.of(100));
     }
 
     @Test
-    void getAllPosts_WhenNoPostsExist_ShouldReturnEmptyList() {
-        given(postRepository.findAll()).willReturn(Collections.emptyList());
+    void getPostsAfter_WhenNoPostsRemain_ShouldReturnEmptyList() {
+        given(postRepository.findChunkAfter(1L, Limit.of(100))).willReturn(Collections.emptyList());
 
-        List<PostDto> postDtos = postService.getAllPosts();
+        List<PostDto> postDtos = postService.getPostsAfter(1L, 100);
 
         assertThat(postDtos).isEmpty();
-        verify(postRepository).findAll();
+    }
+
+    @Test
+    void getPostsAfter_ShouldClampTheChunkSize() {
+        Post next = Post.builder().id(101L).title("Post 101").content("Content").user(user).build();
+        given(postRepository.findChunkAfter(100L, Limit.of(100))).willReturn(List.of(next));
+
+        List<PostDto> chunk = postService.getPostsAfter(100L, 10_000);
+
+        assertThat(chunk).extracting(PostDto::getId).containsExactly(101L);
     }
 
     @Test
     void getPostById_WithValidId_ShouldReturnPostDto() {
         // Given
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.POST, singleFlight, "post", 1L);
         given(postRepository.findById(1L)).willReturn(Optional.of(post));
 
         // When
@@ -109,6 +154,7 @@ class PostServiceImplTest {
     @Test
     void getPostById_WithInvalidId_ShouldThrowException() {
         // Given
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.POST, singleFlight, "post", 1L);
         given(postRepository.findById(1L)).willReturn(Optional.empty());
 
         // When/Then
@@ -134,6 +180,24 @@ class PostServiceImplTest {
         verify(postRepository).save(any(Post.class));
     }
 
+    @Test
+    void createPost_WithTags_ShouldReuseExistingTagsAndPublishChange() {
+        Tag java = Tag.builder().id(1L).name("java").build();
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        Tag spring = Tag.builder().id(2L).name("spring").build();
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(tagRepository.findByNameIn(Set.of("java", "spring"))).willReturn(List.of(java), List.of(java, spring));
+        given(postRepository.save(any(Post.class))).willReturn(post);
+        postDto.setTags(Set.of(" Java", "spring"));
+
+        postService.createPost(postDto);
+
+        verify(tagRepository).insertIfAbsent("spring");
+        verify(tagRepository, never()).insertIfAbsent("java");
+        verify(postRepository).save(argThat(saved -> saved.getTags().equals(Set.of(java, spring))));
+        verify(eventPublisher).publishEvent(new PostTagsChangedEvent(1L, Set.of(), Set.of("java", "spring")));
+    }
+
     @Test
     void createPost_WithInvalidUserId_ShouldThrowException() {
         // Given
@@ -215,6 +279,47 @@ class PostServiceImplTest {
         verify(postRepository).deleteById(1L);
     }
 
+    @Test
+    void updatePost_WithChangedTags_ShouldPublishOnlyTheDifference() {
+        Tag java = Tag.builder().id(1L).name("java").build();
+        Tag jpa = Tag.builder().id(3L).name("jpa").build();
+        post.getTags().add(java);
+        post.getTags().add(Tag.builder().id(2L).name("spring").build());
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(tagRepository.findByNameIn(Set.of("java", "jpa"))).willReturn(List.of(java, jpa));
+        given(postRepository.save(any(Post.class))).willReturn(post);
+        postDto.setTags(Set.of("java", "jpa"));
+
+        postService.updatePost(1L, postDto);
+
+        verify(eventPublisher).publishEvent(new PostTagsChangedEvent(1L, Set.of("spring"), Set.of("jpa")));
+    }
+
+    @Test
+    void getPostsByTags_WhenIndexReady_ShouldLoadMatchesNewestFirst() {
+        Post older = Post.builder().id(1L).title("Old").content("c").user(user).build();
+        Post newer = Post.builder().id(2L).title("New").content("c").user(user).build();
+        given(tagIndex.isReady()).willReturn(true);
+        given(tagIndex.findNewest(Set.of("java"), 20)).willReturn(List.of(2L, 1L));
+        given(postRepository.findAllById(List.of(2L, 1L))).willReturn(List.of(older, newer));
+
+        List<PostDto> posts = postService.getPostsByTags(Set.of("JAVA"), 20);
+
+        assertThat(posts).extracting(PostDto::getId).containsExactly(2L, 1L);
+        verify(postRepository, never()).findIdsWithAllTags(any(), anyLong(), any());
+    }
+
+    @Test
+    void getPostsByTags_WhenIndexNotReady_ShouldQueryDatabase() {
+        given(tagIndex.isReady()).willReturn(false);
+        given(postRepository.findIdsWithAllTags(Set.of("java", "jpa"), 2L, Limit.of(20))).willReturn(List.of());
+
+        List<PostDto> posts = postService.getPostsByTags(Set.of("java", "jpa"), 20);
+
+        assertThat(posts).isEmpty();
+    }
+
     @Test
     void deletePost_WithInvalidId_ShouldThrowException() {
         // Given
@@ -225,4 +330,41 @@ class PostServiceImplTest {
         verify(postRepository).existsById(1L);
         verify(postRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPostsByUser_WithMoreRowsThanPageSize_ShouldReturnNextCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PostSummaryDto> rows = Arrays.asList(
+                new PostSummaryDto(3L, "Third", now),
+                new PostSummaryDto(2L, "Second", now.minusMinutes(1)),
+                new PostSummaryDto(1L, "First", now.minusMinutes(2)));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(postRepository.findSummariesByUserId(1L, Limit.of(3))).willReturn(rows);
+
+        CursorPage<PostSummaryDto> page = postService.getPostsByUser(1L, null, 2);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(3L, 2L);
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(now.minusMinutes(1), 2L));
+    }
+
+    @Test
+    void getPostsByUser_WithCursor_ShouldContinueAfterIt() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        String cursor = new KeysetCursor(createdAt, 5L).encode();
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(postRepository.findSummariesByUserIdBefore(1L, createdAt, 5L, Limit.of(21)))
+                .willReturn(List.of(new PostSummaryDto(4L, "Older", createdAt.minusSeconds(1))));
+
+        CursorPage<PostSummaryDto> page = postService.getPostsByUser(1L, cursor, 20);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getPostsByUser_WithInvalidUserId_ShouldThrowException() {
+        given(userRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> postService.getPostsByUser(1L, null, 20));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.dto.CursorPage;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.event.FollowsChangedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.repository.FollowRepository;
+import com.example.blogapp.repository.PostRepository;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.timeline.TimelineStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceImplTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TimelineStore timelineStore;
+    private TimelineServiceImpl timelineService;
+
+    @BeforeEach
+    void setUp() {
+        TimelineProperties properties = new TimelineProperties();
+        properties.setCapacity(10);
+        properties.setCelebrityThreshold(100);
+        timelineStore = new TimelineStore(properties);
+        timelineService = new TimelineServiceImpl(followRepository, postRepository, userRepository, timelineStore, properties,
+                eventPublisher);
+    }
+
+    private PostSummaryDto summary(long id) {
+        return new PostSummaryDto(id, "Post " + id, LocalDateTime.now());
+    }
+
+    @Test
+    void getTimeline_WhenNotMaterialized_ShouldRebuildFromFollowedAuthors() {
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(2L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(2L), 100L)).willReturn(List.of());
+        given(postRepository.findIdsByUserIdInBefore(List.of(2L), Long.MAX_VALUE, Limit.of(10))).willReturn(List.of(5L, 3L));
+        given(postRepository.findSummariesByIdIn(List.of(5L, 3L))).willReturn(List.of(summary(5), summary(3)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, null, 20);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(5L, 3L);
+        assertThat(timelineStore.get(1L)).containsExactly(5, 3);
+    }
+
+    @Test
+    void getTimeline_WhenMaterialized_ShouldNotQueryFollowedAuthorsPosts() {
+        timelineStore.put(1L, new long[]{9, 7}, timelineStore.generation(1L));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(2L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(2L), 100L)).willReturn(List.of());
+        given(postRepository.findSummariesByIdIn(List.of(9L))).willReturn(List.of(summary(9)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, null, 1);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(9L);
+        assertThat(page.getNextCursor()).isEqualTo("9");
+        verify(postRepository, never()).findIdsByUserIdInBefore(any(), anyLong(), any());
+    }
+
+    @Test
+    void getTimeline_PastTheOldestPostOfAFullRing_ShouldReadPushedAuthorsDirectly() {
+        timelineStore.put(1L, new long[]{20, 19, 18, 17, 16, 15, 14, 13, 12, 11}, timelineStore.generation(1L));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(2L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(2L), 100L)).willReturn(List.of());
+        given(postRepository.findIdsByUserIdInBefore(List.of(2L), 11L, Limit.of(3))).willReturn(List.of(9L, 7L, 5L));
+        given(postRepository.findSummariesByIdIn(List.of(11L, 9L))).willReturn(List.of(summary(11), summary(9)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, "12", 2);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(11L, 9L);
+        assertThat(page.getNextCursor()).isEqualTo("9");
+    }
+
+    @Test
+    void getTimeline_WithCelebrityFollowee_ShouldMergeTheirPostsOnRead() {
+        timelineStore.put(1L, new long[]{8, 4}, timelineStore.generation(1L));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(2L, 3L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(2L, 3L), 100L)).willReturn(List.of(3L));
+        given(postRepository.findIdsByUserIdInBefore(Set.of(3L), Long.MAX_VALUE, Limit.of(21))).willReturn(List.of(6L));
+        given(postRepository.findSummariesByIdIn(List.of(8L, 6L, 4L))).willReturn(List.of(summary(8), summary(6), summary(4)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, null, 20);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(8L, 6L, 4L);
+    }
+
+    @Test
+    void getTimeline_WhenPostInPageWasDeleted_ShouldStillReturnCursorPastIt() {
+        timelineStore.put(1L, new long[]{9, 8, 7}, timelineStore.generation(1L));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(2L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(2L), 100L)).willReturn(List.of());
+        given(postRepository.findSummariesByIdIn(List.of(9L, 8L))).willReturn(List.of(summary(9)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, null, 2);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(9L);
+        assertThat(page.getNextCursor()).isEqualTo("8");
+    }
+
+    @Test
+    void getTimeline_WhenPostIsInRingAndReadFromCelebrity_ShouldReturnItOnce() {
+        timelineStore.put(1L, new long[]{8, 6}, timelineStore.generation(1L));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(followRepository.findFolloweeIds(1L)).willReturn(List.of(3L));
+        given(followRepository.findFolloweesWithMoreFollowersThan(List.of(3L), 100L)).willReturn(List.of(3L));
+        given(postRepository.findIdsByUserIdInBefore(Set.of(3L), Long.MAX_VALUE, Limit.of(21))).willReturn(List.of(8L, 6L));
+        given(postRepository.findSummariesByIdIn(List.of(8L, 6L))).willReturn(List.of(summary(8), summary(6)));
+
+        CursorPage<PostSummaryDto> page = timelineService.getTimeline(1L, null, 20);
+
+        assertThat(page.getItems()).extracting(PostSummaryDto::getId).containsExactly(8L, 6L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTimeline_WithInvalidUserId_ShouldThrowException() {
+        given(userRepository.existsById(1L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> timelineService.getTimeline(1L, null, 20));
+    }
+
+    @Test
+    void follow_ShouldPublishFollowsChangedForTheFollower() {
+        given(userRepository.existsById(anyLong())).willReturn(true);
+
+        timelineService.follow(1L, 2L);
+
+        verify(followRepository).save(any());
+        verify(eventPublisher).publishEvent(new FollowsChangedEvent(1L));
+    }
+
+    @Test
+    void follow_Self_ShouldThrowException() {
+        assertThrows(ResponseStatusException.class, () -> timelineService.follow(1L, 1L));
+        verify(followRepository, never()).save(any());
+    }
+}
@@ -1,17 +1,30 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+import com.example.blogapp.dto.LoginDto;
 import com.example.blogapp.dto.UserDto;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.index.UsernameIndex;
 import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.security.PasswordHasher;
+import com.example.blogapp.support.LookupLayers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +41,24 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -45,31 +76,33 @@ class UserServiceImplTest {
                 .id(1L)
                 .username("testuser")
                 .build();
+
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
-    void getAllUsers_ShouldReturnListOfUserDtos() {
-        given(userRepository.findAll()).willReturn(Arrays.asList(user));
+    void getUsersAfter_ShouldReturnOneChunk() {
+        given(userRepository.findChunkAfter(0L, Limit.of(100))).willReturn(List.of(userDto));
 
-        List<UserDto> userDtos = userService.getAllUsers();
+        List<UserDto> userDtos = userService.getUsersAfter(0L, 10_000);
 
-        assertThat(userDtos).isNotEmpty();
-        assertThat(userDtos.size()).isEqualTo(1);
-        verify(userRepository).findAll();
+        assertThat(userDtos).containsExactly(userDto);
+        verify(userRepository).findChunkAfter(0L, Limit.of(100));
     }
 
     @Test
-    void getAllUsers_WhenNoUsersExist_ShouldReturnEmptyList() {
-        given(userRepository.findAll()).willReturn(Collections.emptyList());
+    void getUsersAfter_WhenNoUsersRemain_ShouldReturnEmptyList() {
+        given(userRepository.findChunkAfter(1L, Limit.of(100))).willReturn(Collections.emptyList());
 
-        List<UserDto> userDtos = userService.getAllUsers();
+        List<UserDto> userDtos = userService.getUsersAfter(1L, 100);
 
         assertThat(userDtos).isEmpty();
-        verify(userRepository).findAll();
     }
 
     @Test
     void getUserById_WithValidId_ShouldReturnUserDto() {
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.USER, singleFlight, "user", 1L);
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
 
         UserDto foundUser = userService.getUserById(1L);
@@ -81,6 +114,7 @@ class UserServiceImplTest {
 
     @Test
     void getUserById_WithInvalidId_ShouldThrowException() {
+        LookupLayers.passThrough(negativeLookupCache, NegativeLookupCache.USER, singleFlight, "user", 1L);
         given(userRepository.findById(1L)).willReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
@@ -147,4 +181,147 @@ class UserServiceImplTest {
         verify(userRepository).existsById(1L);
         verify(userRepository, never()).deleteById(any());
     }
+
+    @Test
+    void createUser_ShouldStoreHashedPassword() {
+        given(passwordHasher.hash("secret")).willReturn("hashed");
+        given(userRepository.save(any(User.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        UserDto createdUser = userService.createUser(UserDto.builder().username("testuser").password("secret").build());
+
+        verify(userRepository).save(argThat(saved -> "hashed".equals(saved.getPassword())));
+        assertThat(createdUser.getPassword()).isNull();
+    }
+
+    @Test
+    void createUser_ShouldHashBeforeStartingTransaction() {
+        given(passwordHasher.hash("secret")).willReturn("hashed");
+        given(userRepository.save(any(User.class))).willReturn(user);
+
+        userService.createUser(UserDto.builder().username("testuser").password("secret").build());
+
+        InOrder inOrder = inOrder(passwordHasher, transactionOperations);
+        inOrder.verify(passwordHasher).hash("secret");
+        inOrder.verify(transactionOperations).execute(any());
+    }
+
+    @Test
+    void updateUser_ShouldHashBeforeStartingTransaction() {
+        given(passwordHasher.hash("secret")).willReturn("hashed");
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(userRepository.save(any(User.class))).willReturn(user);
+
+        userService.updateUser(1L, UserDto.builder().username("testuser").password("secret").build());
+
+        InOrder inOrder = inOrder(passwordHasher, transactionOperations);
+        inOrder.verify(passwordHasher).hash("secret");
+        inOrder.verify(transactionOperations).execute(any());
+        assertThat(user.getPassword()).isEqualTo("hashed");
+    }
+
+    @Test
+    void login_WithUnknownUsername_ShouldStillCompareAHash() {
+        given(userRepository.findByUsername("nobody")).willReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> userService.login(new LoginDto("nobody", "secret")));
+        verify(passwordHasher).matchesDummy("secret");
+    }
+
+    @Test
+    void login_WithOutdatedHash_ShouldRehashAndSave() {
+        user.setPassword("old-hash");
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(passwordHasher.matches("secret", "old-hash")).willReturn(true);
+        given(passwordHasher.needsRehash("old-hash")).willReturn(true);
+        given(passwordHasher.hash("secret")).willReturn("new-hash");
+
+        userService.login(new LoginDto("testuser", "secret"));
+
+        assertThat(user.getPassword()).isEqualTo("new-hash");
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void login_WithCurrentHash_ShouldNotSave() {
+        user.setPassword("hash");
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(passwordHasher.matches("secret", "hash")).willReturn(true);
+        given(passwordHasher.needsRehash("hash")).willReturn(false);
+
+        UserDto loggedIn = userService.login(new LoginDto("testuser", "secret"));
+
+        assertThat(loggedIn.getUsername()).isEqualTo("testuser");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void login_WithWrongPassword_ShouldThrowException() {
+        user.setPassword("hash");
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(passwordHasher.matches("wrong", "hash")).willReturn(false);
+
+        assertThrows(ResponseStatusException.class, () -> userService.login(new LoginDto("testuser", "wrong")));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void getUserByUsername_WithExistingUsername_ShouldReturnUserDto() {
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+
+        UserDto foundUser = userService.getUserByUsername("testuser");
+
+        assertThat(foundUser.getUsername()).isEqualTo("testuser");
+    }
+
+    @Test
+    void getUserByUsername_WithUnknownUsername_ShouldThrowException() {
+        given(userRepository.findByUsername("nobody")).willReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserByUsername("nobody"));
+    }
+
+    @Test
+    void isUsernameAvailable_WhenFilterMisses_ShouldNotQueryDatabase() {
+        given(usernameIndex.mightBeTaken("fresh")).willReturn(false);
+
+        assertThat(userService.isUsernameAvailable("fresh")).isTrue();
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    @Test
+    void isUsernameAvailable_WhenFilterHits_ShouldConfirmWithDatabase() {
+        given(usernameIndex.mightBeTaken("testuser")).willReturn(true);
+        given(userRepository.existsByUsername("testuser")).willReturn(true);
+
+        assertThat(userService.isUsernameAvailable("testuser")).isFalse();
+    }
+
+    @Test
+    void createUser_WithTakenUsername_ShouldThrowConflictWithoutAskingTheFilter() {
+        given(userRepository.existsByUsername("testuser")).willReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> userService.createUser(userDto));
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(usernameIndex);
+    }
+
+    @Test
+    void createUser_WhenUniqueIndexRejectsUsername_ShouldThrowConflict() {
+        given(userRepository.save(any(User.class))).willThrow(new DataIntegrityViolationException("uk_users_username"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> userService.createUser(userDto));
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void updateUser_ToTakenUsername_ShouldThrowConflict() {
+        given(userRepository.findById(1L)).willReturn(Optional.of(user));
+        given(userRepository.existsByUsername("taken")).willReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.updateUser(1L, UserDto.builder().username("taken").build()));
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        verify(userRepository, never()).save(any(User.class));
+    }
 }
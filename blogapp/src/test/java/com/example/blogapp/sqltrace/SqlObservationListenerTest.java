@@ -0,0 +1,56 @@
+package com.example.blogapp.sqltrace;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlObservationListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    }
+
+    @Test
+    void afterQuery_ShouldTagTheTimerByOperationOnly() {
+        execute("SELECT * FROM posts WHERE id = ?");
+        execute("select * from users where id = ?");
+
+        Timer timer = meterRegistry.get("blogapp.jdbc.query").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.getId().getTags()).extracting(Tag::getKey).doesNotContain("db.statement");
+        assertThat(timer.getId().getTag("db.operation")).isEqualTo("select");
+    }
+
+    @Test
+    void beforeQuery_WhenObservationIsSkipped_ShouldRecordNothing() {
+        observationRegistry.observationConfig().observationPredicate((name, context) -> false);
+
+        execute("select 1");
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private void execute(String sql) {
+        SqlObservationListener listener = new SqlObservationListener(observationRegistry);
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(execInfo, queries);
+        listener.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.blogapp.sqltrace;
+
+import com.example.blogapp.config.SqlTracingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SqlTracerTest {
+
+    private SqlTracingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlTracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlTracingProperties();
+        properties.setSlowThreshold(Duration.ofSeconds(10));
+        properties.setMaxShapes(3);
+        meterRegistry = new SimpleMeterRegistry();
+        tracer = new SqlTracer(properties, meterRegistry);
+    }
+
+    @Test
+    void mostFrequent_ShouldGroupInListsOfAnyLengthIntoOneShape() {
+        execute("select * from tags where id in (?, ?)");
+        execute("select * from tags where id in (?,?,?)");
+        execute("select * from posts where id = ?");
+
+        List<QueryShapeStats> top = tracer.mostFrequent(10);
+
+        assertThat(top).extracting(QueryShapeStats::sql, QueryShapeStats::count).containsExactly(
+                tuple("select * from tags where id in (?, ...)", 2L),
+                tuple("select * from posts where id = ?", 1L));
+    }
+
+    @Test
+    void slowest_ShouldOrderByLongestExecution() throws InterruptedException {
+        execute("select 1");
+        ExecutionInfo slow = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo("select 2"));
+        tracer.beforeQuery(slow, queries);
+        Thread.sleep(20);
+        tracer.afterQuery(slow, queries);
+
+        assertThat(tracer.slowest(1)).singleElement().satisfies(stats -> {
+            assertThat(stats.sql()).isEqualTo("select 2");
+            assertThat(stats.maxMillis()).isGreaterThanOrEqualTo(20);
+        });
+    }
+
+    @Test
+    void afterQuery_AboveThreshold_ShouldCountSlowStatementAndKeepOrigin() {
+        properties.setSlowThreshold(Duration.ZERO);
+        tracer = new SqlTracer(properties, meterRegistry);
+
+        SqlOrigin.enter(SqlTracerTest.class, "controller");
+        SqlOrigin.enter(SqlTracerTest.class, "service");
+        try {
+            execute("select * from users where id = ?");
+        } finally {
+            SqlOrigin.exit();
+            SqlOrigin.exit();
+        }
+
+        assertThat(meterRegistry.get("blogapp.sql.slow").counter().count()).isEqualTo(1);
+        assertThat(tracer.slowest(1).get(0).slowestOrigin())
+                .isEqualTo("SqlTracerTest.controller > SqlTracerTest.service");
+        assertThat(SqlOrigin.current()).isEqualTo("-");
+    }
+
+    @Test
+    void afterQuery_PastMaxShapes_ShouldOnlyCountStatement() {
+        for (int i = 0; i < 5; i++) {
+            execute("select " + i);
+        }
+
+        assertThat(tracer.mostFrequent(10)).hasSize(3);
+        assertThat(tracer.untrackedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void mask_ShouldHideTextAndKeepIdsAndTimes() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(SqlTracer.mask("$2a$10$abcdefghijklmnopqrstuv")).isEqualTo("<29 chars>");
+        assertThat(SqlTracer.mask(new byte[]{1, 2, 3})).isEqualTo("<3 bytes>");
+        assertThat(SqlTracer.mask(42L)).isEqualTo(42L);
+        assertThat(SqlTracer.mask(now)).isEqualTo(now);
+    }
+
+    private void execute(String sql) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        tracer.beforeQuery(execInfo, queries);
+        tracer.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.blogapp.stream;
+
+import com.example.blogapp.config.CommentStreamProperties;
+import com.example.blogapp.dto.CommentDto;
+import com.example.blogapp.event.CommentCreatedEvent;
+import com.example.blogapp.exception.ResourceNotFoundException;
+import com.example.blogapp.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class CommentStreamHubTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CommentStreamProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new CommentStreamProperties();
+        properties.setBufferSize(2);
+        properties.setMaxSubscribers(2);
+    }
+
+    // Sender that never runs, so every subscriber looks stalled
+    private CommentStreamHub stalledHub() {
+        return new CommentStreamHub(postRepository, properties, meterRegistry, task -> { });
+    }
+
+    private CommentCreatedEvent comment(long id) {
+        return new CommentCreatedEvent(CommentDto.builder().id(id).postId(1L).userId(1L).content("Hi").build());
+    }
+
+    @Test
+    void subscribe_WithUnknownPost_ShouldThrowNotFound() {
+        given(postRepository.existsById(9L)).willReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> stalledHub().subscribe(9L));
+    }
+
+    @Test
+    void subscribe_OverLimit_ShouldThrowServiceUnavailable() {
+        given(postRepository.existsById(1L)).willReturn(true);
+        CommentStreamHub hub = stalledHub();
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> hub.subscribe(1L));
+
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(hub.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void onCommentCreated_WhenSubscriberBufferIsFull_ShouldDisconnectIt() {
+        given(postRepository.existsById(1L)).willReturn(true);
+        CommentStreamHub hub = stalledHub();
+        hub.subscribe(1L);
+
+        hub.onCommentCreated(comment(1));
+        hub.onCommentCreated(comment(2));
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+
+        hub.onCommentCreated(comment(3));
+
+        assertThat(hub.subscriberCount()).isZero();
+        assertThat(meterRegistry.counter("blogapp.comments.stream.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void onCommentCreated_ForOtherPost_ShouldNotQueue() {
+        given(postRepository.existsById(2L)).willReturn(true);
+        CommentStreamHub hub = stalledHub();
+        hub.subscribe(2L);
+
+        for (int i = 0; i < 5; i++) {
+            hub.onCommentCreated(comment(i));
+        }
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.blogapp.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts large fixtures with JDBC batches, bypassing the API and JPA. Nothing is published,
+ * so in-memory views such as the tag index and timelines do not see these rows.
+ */
+public class BulkData {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Returns the new user ids in insertion order; every user gets the same placeholder password hash
+    public List<Long> users(String usernamePrefix, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{usernamePrefix + i, "Bulk User " + i, "bulk-password-hash", now, now});
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO users (username, full_name, password, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class,
+                usernamePrefix + "%");
+    }
+
+    // Returns the new post ids oldest first; creation times are one second apart, ending now
+    public List<Long> posts(Long authorId, int count) {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(count);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(i));
+            rows.add(new Object[]{"Bulk post " + i, "Bulk content", authorId, createdAt, createdAt});
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO posts (title, content, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM posts WHERE user_id = ? ORDER BY id", Long.class, authorId);
+    }
+
+    // Top-level comments, returned in id order; root_id and path are filled in once the ids exist
+    public List<Long> comments(Long postId, Long authorId, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Bulk comment " + i, postId, authorId, now, now});
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO comments (content, post_id, user_id, created_at, updated_at, root_id, path)"
+                        + " VALUES (?, ?, ?, ?, ?, 0, '')", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.update("UPDATE comments SET root_id = id, path = LPAD(CAST(id AS VARCHAR(19)), 19, '0') || '/'"
+                + " WHERE post_id = ? AND root_id = 0", postId);
+        return jdbcTemplate.queryForList("SELECT id FROM comments WHERE post_id = ? ORDER BY id", Long.class, postId);
+    }
+}
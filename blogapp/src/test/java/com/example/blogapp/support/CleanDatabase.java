@@ -0,0 +1,32 @@
+package com.example.blogapp.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs an {@link IntegrationTest} class with no other integration test alongside it and
+ * truncates every table before and after each of its tests. Meant for large fixtures and for tests that
+ * depend on what else is in the database.
+ *
+ * With {@link Lifecycle#PER_CLASS} the tables are emptied once before and once after the class
+ * instead, so read-only tests can share fixtures seeded in a static {@code @BeforeAll}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ResourceLock(value = IntegrationTest.DATABASE, mode = ResourceAccessMode.READ_WRITE)
+@ExtendWith(DatabaseTruncation.class)
+public @interface CleanDatabase {
+
+    Lifecycle value() default Lifecycle.PER_METHOD;
+
+    enum Lifecycle {
+        PER_METHOD,
+        PER_CLASS
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.blogapp.support;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Empties all application tables with TRUNCATE, which is far cheaper than deleting row by row
+ * through repositories. Runs before each test (or class, see {@link CleanDatabase.Lifecycle}), so it
+ * starts from whatever earlier classes left behind, and after it, so its own fixtures do not slow down
+ * the classes that follow. Identities continue rather than restart, so ids are never reused and
+ * in-memory caches keyed by id cannot serve a truncated row for a new one.
+ */
+class DatabaseTruncation implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final String TABLES = "SELECT table_name FROM information_schema.tables"
+            + " WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE' AND table_name <> 'flyway_schema_history'";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        truncateIf(context, CleanDatabase.Lifecycle.PER_CLASS);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        truncateIf(context, CleanDatabase.Lifecycle.PER_CLASS);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        truncateIf(context, CleanDatabase.Lifecycle.PER_METHOD);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        truncateIf(context, CleanDatabase.Lifecycle.PER_METHOD);
+    }
+
+    private void truncateIf(ExtensionContext context, CleanDatabase.Lifecycle lifecycle) {
+        CleanDatabase cleanDatabase = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), CleanDatabase.class)
+                .orElseThrow();
+        if (cleanDatabase.value() == lifecycle) {
+            truncate(context);
+        }
+    }
+
+    private void truncate(ExtensionContext context) {
+        JdbcTemplate jdbcTemplate = SpringExtension.getApplicationContext(context).getBean(JdbcTemplate.class);
+        List<String> tables = jdbcTemplate.queryForList(TABLES, String.class);
+        jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : tables) {
+                    statement.execute("TRUNCATE TABLE \"" + table + "\" CONTINUE IDENTITY");
+                }
+            } finally {
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.blogapp.support;
+
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application on a random port, shared by every class carrying this annotation: the
+ * configuration is identical, so Spring's test context cache boots it once per run.
+ *
+ * Classes run in parallel against the same database and isolate themselves by creating their
+ * own uniquely named data ({@link TestData}) instead of wiping tables. A class that needs the
+ * database to itself uses {@link CleanDatabase}. {@link SqlCapture} is available to count the
+ * statements a request runs, and {@link SpanCapture} to inspect its trace.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureObservability(metrics = false)
+@Import(SqlCaptureConfiguration.class)
+@ResourceLock(value = IntegrationTest.DATABASE, mode = ResourceAccessMode.READ)
+public @interface IntegrationTest {
+
+    String DATABASE = "database";
+}
@@ -0,0 +1,72 @@
+package com.example.blogapp.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-endpoint latency budgets, kept in {@code latency-budgets.properties} next to the tests.
+ * The median of several timed calls, after a warm-up, has to stay within the recorded budget.
+ *
+ * With {@code -Dlatency.budgets.record=true} the measured medians are also appended to
+ * {@code target/latency-budgets.measured.properties}, as a starting point when a budget needs
+ * to change.
+ */
+public final class LatencyBudgets {
+
+    private static final int WARMUP = 5;
+    private static final int MEASURED = 21;
+    private static final Properties BUDGETS = load();
+
+    private LatencyBudgets() {
+    }
+
+    public static void assertWithinBudget(String endpoint, Runnable request) {
+        String budget = BUDGETS.getProperty(endpoint);
+        assertThat(budget).as("latency budget for %s", endpoint).isNotNull();
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+        }
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            long start = System.nanoTime();
+            request.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long medianMillis = TimeUnit.NANOSECONDS.toMillis(nanos[MEASURED / 2]);
+        if (Boolean.getBoolean("latency.budgets.record")) {
+            record(endpoint, medianMillis);
+        }
+        assertThat(medianMillis).as("median latency of %s in ms", endpoint).isLessThanOrEqualTo(Long.parseLong(budget));
+    }
+
+    private static Properties load() {
+        Properties budgets = new Properties();
+        try (InputStream in = LatencyBudgets.class.getResourceAsStream("/latency-budgets.properties")) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return budgets;
+    }
+
+    private static synchronized void record(String endpoint, long medianMillis) {
+        try {
+            Files.writeString(Path.of("target", "latency-budgets.measured.properties"), endpoint + "=" + medianMillis + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.blogapp.support;
+
+import com.example.blogapp.cache.NegativeLookupCache;
+import com.example.blogapp.cache.SingleFlight;
+
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Stubs the two layers that by-id service lookups go through. Each layer only decides whether
+ * the loader runs, so the stubs run it directly and the test exercises the repository call.
+ */
+public final class LookupLayers {
+
+    private LookupLayers() {
+    }
+
+    public static void passThrough(NegativeLookupCache negativeLookupCache, String resource,
+                                   SingleFlight singleFlight, String group, Long id) {
+        given(negativeLookupCache.lookup(eq(resource), eq(id), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        given(singleFlight.load(eq(group), eq(id), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+    }
+}
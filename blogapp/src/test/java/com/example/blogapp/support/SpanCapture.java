@@ -0,0 +1,50 @@
+package com.example.blogapp.support;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently exported spans in memory. Tests find their own by sending a sampled
+ * {@code traceparent} with a trace id of their choosing, see {@link #traceparent(String)}.
+ */
+public class SpanCapture implements SpanExporter {
+
+    private static final int MAX_SPANS = 5_000;
+
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public static String traceparent(String traceId) {
+        return "00-" + traceId + "-00f067aa0ba902b7-01";
+    }
+
+    public synchronized List<SpanData> spansOf(String traceId) {
+        return spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == MAX_SPANS) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
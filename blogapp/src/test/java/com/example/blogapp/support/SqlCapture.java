@@ -0,0 +1,83 @@
+package com.example.blogapp.support;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the SQL statements each captured request runs on its own request thread. A request is
+ * captured when it carries the {@link #HEADER} header, so tests running in parallel against the
+ * same application only see their own statements. Work handed to other threads, such as view
+ * count flushes or timeline fan-out, is not part of the request and not recorded.
+ */
+public class SqlCapture implements QueryExecutionListener {
+
+    public static final String HEADER = "X-Sql-Capture";
+
+    private final ThreadLocal<List<String>> current = new ThreadLocal<>();
+    private final Map<String, List<String>> byRequest = new ConcurrentHashMap<>();
+
+    public <T> Captured<T> get(TestRestTemplate restTemplate, String url, Class<T> responseType) {
+        String id = UUID.randomUUID().toString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER, id);
+        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType);
+        List<String> statements = byRequest.remove(id);
+        return new Captured<>(response, statements != null ? statements : List.of());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = current.get();
+        if (statements != null) {
+            queryInfoList.forEach(queryInfo -> statements.add(queryInfo.getQuery()));
+        }
+    }
+
+    OncePerRequestFilter filter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                String id = request.getHeader(HEADER);
+                if (id == null) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                List<String> statements = Collections.synchronizedList(new ArrayList<>());
+                current.set(statements);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    current.remove();
+                    byRequest.put(id, statements);
+                }
+            }
+        };
+    }
+
+    public record Captured<T>(ResponseEntity<T> response, List<String> statements) {
+    }
+}
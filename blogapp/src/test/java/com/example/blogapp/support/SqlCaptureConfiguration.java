@@ -0,0 +1,51 @@
+package com.example.blogapp.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every connection of the application under test through datasource-proxy, so
+ * {@link SqlCapture} sees each statement a request runs, and keeps exported spans in a
+ * {@link SpanCapture}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class SqlCaptureConfiguration {
+
+    @Bean
+    SqlCapture sqlCapture() {
+        return new SqlCapture();
+    }
+
+    @Bean
+    SpanCapture spanCapture() {
+        return new SpanCapture();
+    }
+
+    // Only the bean the application uses; with read replicas it routes to pools that are not wrapped again
+    @Bean
+    static BeanPostProcessor sqlCaptureDataSourceProxy(ObjectProvider<SqlCapture> sqlCapture) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(sqlCapture.getObject()).build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<?> sqlCaptureFilter(SqlCapture sqlCapture) {
+        FilterRegistrationBean<?> registration = new FilterRegistrationBean<>(sqlCapture.filter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
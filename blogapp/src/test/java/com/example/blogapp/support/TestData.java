@@ -0,0 +1,45 @@
+package com.example.blogapp.support;
+
+import com.example.blogapp.dto.PostDto;
+import com.example.blogapp.dto.UserDto;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builders for API fixtures with names no other test uses, so tests running in parallel
+ * against one database never collide on unique constraints or see each other's rows.
+ */
+public final class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestData() {
+    }
+
+    public static String unique(String prefix) {
+        return prefix + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    public static UserDto.UserDtoBuilder user() {
+        return UserDto.builder()
+                .username(unique("user"))
+                .fullName("Test User")
+                .password("password123");
+    }
+
+    public static PostDto.PostDtoBuilder post(Long userId) {
+        return PostDto.builder()
+                .title(unique("post"))
+                .content("Test Content")
+                .userId(userId);
+    }
+
+    public static Long createUser(TestRestTemplate restTemplate) {
+        return restTemplate.postForEntity("/api/users", user().build(), UserDto.class).getBody().getId();
+    }
+
+    public static Long createPost(TestRestTemplate restTemplate, Long userId) {
+        return restTemplate.postForEntity("/api/posts", post(userId).build(), PostDto.class).getBody().getId();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.blogapp.timeline;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.event.PostCreatedEvent;
+import com.example.blogapp.repository.FollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineFanoutTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TimelineFanout fanout;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        fanout.shutdown();
+    }
+
+    @Test
+    void onPostCreated_WhenQueueIsFull_ShouldFanOutOnTheCallingThread() throws InterruptedException {
+        TimelineProperties properties = new TimelineProperties();
+        properties.setFanoutThreads(1);
+        properties.setFanoutQueueCapacity(1);
+        TimelineStore store = new TimelineStore(properties);
+        store.put(10L, new long[0], store.generation(10L));
+        fanout = new TimelineFanout(followRepository, store, properties, meterRegistry);
+        CountDownLatch busy = new CountDownLatch(1);
+        given(followRepository.countByFolloweeId(1L)).willAnswer(invocation -> {
+            busy.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return 0L;
+        });
+        given(followRepository.countByFolloweeId(2L)).willReturn(0L);
+        given(followRepository.findFollowerIds(2L)).willReturn(List.of(10L));
+
+        fanout.onPostCreated(new PostCreatedEvent(100L, 1L));
+        assertThat(busy.await(10, TimeUnit.SECONDS)).isTrue();
+        fanout.onPostCreated(new PostCreatedEvent(101L, 1L));
+        fanout.onPostCreated(new PostCreatedEvent(102L, 2L));
+
+        assertThat(store.get(10L)).containsExactly(102);
+        assertThat(meterRegistry.get("blogapp.timeline.fanout.caller.runs").counter().count()).isEqualTo(1);
+    }
+}
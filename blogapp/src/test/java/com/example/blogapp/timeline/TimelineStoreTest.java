@@ -0,0 +1,75 @@
+package com.example.blogapp.timeline;
+
+import com.example.blogapp.config.TimelineProperties;
+import com.example.blogapp.event.FollowsChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineStoreTest {
+
+    private TimelineStore store(int capacity, int maxUsers) {
+        TimelineProperties properties = new TimelineProperties();
+        properties.setCapacity(capacity);
+        properties.setMaxUsers(maxUsers);
+        return new TimelineStore(properties);
+    }
+
+    @Test
+    void get_WhenNotMaterialized_ShouldReturnNull() {
+        assertThat(store(3, 10).get(1L)).isNull();
+    }
+
+    @Test
+    void pushIfPresent_ShouldKeepMostRecentIdsNewestFirst() {
+        TimelineStore store = store(3, 10);
+        store.put(1L, new long[]{2, 1}, store.generation(1L));
+
+        store.pushIfPresent(1L, 4);
+        store.pushIfPresent(1L, 3);
+
+        assertThat(store.get(1L)).containsExactly(4, 3, 2);
+    }
+
+    @Test
+    void pushIfPresent_WhenNotMaterialized_ShouldNotCreateTimeline() {
+        TimelineStore store = store(3, 10);
+
+        store.pushIfPresent(1L, 5);
+
+        assertThat(store.get(1L)).isNull();
+    }
+
+    @Test
+    void put_WhenOverMaxUsers_ShouldEvictAnotherTimeline() {
+        TimelineStore store = store(3, 1);
+        store.put(1L, new long[]{1}, store.generation(1L));
+
+        store.put(2L, new long[]{2}, store.generation(2L));
+
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.get(2L)).containsExactly(2);
+    }
+
+    @Test
+    void put_WhenFollowsChangedDuringRebuild_ShouldDropTheStaleRing() {
+        TimelineStore store = store(3, 10);
+        long generation = store.generation(1L);
+
+        store.onFollowsChanged(new FollowsChangedEvent(1L));
+        store.put(1L, new long[]{1}, generation);
+
+        assertThat(store.get(1L)).isNull();
+    }
+
+    @Test
+    void put_WhenPostPushedDuringRebuild_ShouldDropTheRingThatMayMissIt() {
+        TimelineStore store = store(3, 10);
+        long generation = store.generation(1L);
+
+        store.pushIfPresent(1L, 5);
+        store.put(1L, new long[]{1}, generation);
+
+        assertThat(store.get(1L)).isNull();
+    }
+}
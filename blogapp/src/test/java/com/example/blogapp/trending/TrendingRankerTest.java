@@ -0,0 +1,114 @@
+package com.example.blogapp.trending;
+
+import com.example.blogapp.config.TrendingProperties;
+import com.example.blogapp.dto.PostSummaryDto;
+import com.example.blogapp.repository.CommentRepository;
+import com.example.blogapp.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingRankerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private TrendingProperties properties;
+    private TrendingRanker ranker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrendingProperties();
+        properties.setHalfLife(Duration.ofHours(1));
+        properties.setWindow(Duration.ofHours(24));
+        properties.setTopK(2);
+        ranker = new TrendingRanker(postRepository, commentRepository, properties, Clock.fixed(NOW, ZoneId.of("UTC")));
+
+        given(postRepository.findSummariesByIdIn(anyCollection())).willAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new PostSummaryDto(id, "post " + id, null)).toList();
+        });
+    }
+
+    private List<Long> trendingIds(int limit) {
+        return ranker.getTrending(limit).stream().map(PostSummaryDto::getId).toList();
+    }
+
+    @Test
+    void refresh_ShouldRankByWeightedActivity() {
+        ranker.record(1L, 1.0, NOW.toEpochMilli());
+        ranker.record(2L, 1.0, NOW.toEpochMilli());
+        ranker.record(2L, 3.0, NOW.toEpochMilli());
+
+        ranker.refresh();
+
+        assertThat(trendingIds(10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void refresh_ShouldFavourRecentActivity() {
+        // Three comments two half-lives ago are worth 0.75 comments now
+        long twoHoursAgo = NOW.minus(Duration.ofHours(2)).toEpochMilli();
+        ranker.record(1L, 3.0, twoHoursAgo);
+        ranker.record(1L, 3.0, twoHoursAgo);
+        ranker.record(1L, 3.0, twoHoursAgo);
+        ranker.record(2L, 3.0, NOW.toEpochMilli());
+
+        ranker.refresh();
+
+        assertThat(trendingIds(10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void refresh_ShouldKeepOnlyTopK() {
+        ranker.record(1L, 1.0, NOW.toEpochMilli());
+        ranker.record(2L, 2.0, NOW.toEpochMilli());
+        ranker.record(3L, 3.0, NOW.toEpochMilli());
+
+        ranker.refresh();
+
+        assertThat(trendingIds(10)).containsExactly(3L, 2L);
+        assertThat(trendingIds(1)).containsExactly(3L);
+    }
+
+    @Test
+    void refresh_ShouldDropPostsOutsideWindow() {
+        ranker.record(1L, 100.0, NOW.minus(Duration.ofHours(25)).toEpochMilli());
+        ranker.record(2L, 1.0, NOW.toEpochMilli());
+
+        ranker.refresh();
+
+        assertThat(trendingIds(10)).containsExactly(2L);
+    }
+
+    @Test
+    void refresh_ShouldSkipDeletedPosts() {
+        given(postRepository.findSummariesByIdIn(anyCollection()))
+                .willReturn(List.of(new PostSummaryDto(2L, "post 2", null)));
+        ranker.record(1L, 5.0, NOW.toEpochMilli());
+        ranker.record(2L, 1.0, NOW.toEpochMilli());
+
+        ranker.refresh();
+
+        assertThat(trendingIds(10)).containsExactly(2L);
+    }
+}
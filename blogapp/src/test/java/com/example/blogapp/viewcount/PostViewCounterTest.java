@@ -0,0 +1,65 @@
+package com.example.blogapp.viewcount;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PostViewCounter counter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOneBatchWithSummedViews() {
+        counter.increment(2L);
+        counter.increment(1L);
+        counter.increment(2L);
+
+        counter.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertThat(batch.getValue()).containsExactly(new Object[]{1L, 1L}, new Object[]{2L, 2L});
+        assertThat(counter.pendingCount(2L)).isZero();
+    }
+
+    @Test
+    void flush_WithNoNewViews_ShouldNotTouchDatabase() {
+        counter.increment(1L);
+        counter.flush();
+
+        counter.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void flush_WhenBatchFails_ShouldKeepCountsForNextInterval() {
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new DataAccessResourceFailureException("down"));
+        counter.increment(1L);
+        counter.increment(1L);
+
+        counter.flush();
+
+        assertThat(counter.pendingCount(1L)).isEqualTo(2);
+    }
+}